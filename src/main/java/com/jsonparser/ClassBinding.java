@@ -0,0 +1,245 @@
+package com.jsonparser;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// The reflection work behind parseToClass and JSONSerializer, done once per class and shared between threads through
+// a ClassValue: the no-arg constructor (or a record's canonical one) and the instance fields with their element
+// types resolved, also indexed by name for the streaming binder. Constructors and fields are reached through method
+// handles adapted to Object signatures, which skips the per-call access checks of Field.set and
+// Constructor.newInstance. The handles sit in instance fields of a binding looked up at run time, not in constants,
+// so the JIT cannot inline through them: BindingBenchmark puts this on par with cached Field objects (about 6 ms per
+// 100k objects either way, within run-to-run noise), not with hand-written accessors
+final class ClassBinding {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<ClassBinding> BINDINGS = new ClassValue<>() {
+        @Override
+        protected ClassBinding computeValue(Class<?> type) {
+            return new ClassBinding(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final MethodHandle constructor;
+    private final boolean record;
+    private final FieldBinding[] fields;
+    private final Map<String, FieldBinding> fieldsByName = new HashMap<>();
+    // The canonical constructor's arguments before any component is read: zero for primitives, null otherwise
+    private final Object[] defaultArguments;
+
+    private ClassBinding(Class<?> type) {
+        this.type = type;
+        this.record = type.isRecord();
+        List<FieldBinding> fields = new ArrayList<>();
+        if (record) {
+            RecordComponent[] components = type.getRecordComponents();
+            for (int i = 0; i < components.length; i++) {
+                Field field = declaredField(type, components[i].getName());
+                field.setAccessible(true);
+                fields.add(new FieldBinding(field, i));
+            }
+            this.constructor = canonicalConstructor(type, components);
+        } else {
+            for (Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    field.setAccessible(true);
+                    fields.add(new FieldBinding(field, fields.size()));
+                }
+            }
+            this.constructor = noArgConstructor(type);
+        }
+        this.fields = fields.toArray(new FieldBinding[0]);
+        this.defaultArguments = new Object[this.fields.length];
+        for (FieldBinding field : this.fields) {
+            fieldsByName.put(field.name, field);
+            defaultArguments[field.index] = field.defaultValue;
+        }
+    }
+
+    static ClassBinding of(Class<?> type) {
+        return BINDINGS.get(type);
+    }
+
+    boolean isRecord() {
+        return record;
+    }
+
+    Object newInstance() {
+        if (record) {
+            throw new JSONException("Error creating instance of " + type + ": records are created from their components");
+        }
+        if (constructor == null) {
+            throw new JSONException("Error creating instance of " + type + ": no no-arg constructor");
+        }
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new JSONException("Error creating instance of " + type, e);
+        }
+    }
+
+    // A fresh argument array for newRecord, indexed by FieldBinding.index
+    Object[] newArguments() {
+        return defaultArguments.clone();
+    }
+
+    Object newRecord(Object[] arguments) {
+        try {
+            return (Object) constructor.invokeExact(arguments);
+        } catch (Throwable e) {
+            throw new JSONException("Error creating instance of " + type, e);
+        }
+    }
+
+    FieldBinding[] fields() {
+        return fields;
+    }
+
+    // Null when the class has no such field
+    FieldBinding field(String name) {
+        return fieldsByName.get(name);
+    }
+
+    private static MethodHandle canonicalConstructor(Class<?> type, RecordComponent[] components) {
+        Class<?>[] parameterTypes = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            parameterTypes[i] = components[i].getType();
+        }
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor(parameterTypes);
+            constructor.setAccessible(true);
+            return LOOKUP.unreflectConstructor(constructor).asSpreader(Object[].class, components.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new JSONException("Error resolving canonical constructor of " + type, e);
+        }
+    }
+
+    private static Field declaredField(Class<?> type, String name) {
+        try {
+            return type.getDeclaredField(name);
+        } catch (NoSuchFieldException e) {
+            throw new JSONException("Missing field for record component: " + name, e);
+        }
+    }
+
+    private static MethodHandle noArgConstructor(Class<?> type) {
+        if (Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return LOOKUP.unreflectConstructor(constructor).asType(CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    // How a JSON array is turned into the field's value
+    enum ArrayKind {
+        ARRAY, LIST, SET, UNSUPPORTED
+    }
+
+    static final class FieldBinding {
+        final String name;
+        // Position among the fields, which for a record is the canonical constructor's parameter index
+        final int index;
+        final Class<?> type;
+        final Type genericType;
+        final Object defaultValue;
+        // Component type for arrays, the type argument for collections, Object when there is none
+        final Class<?> elementType;
+        final ArrayKind arrayKind;
+        private final MethodHandle getter;
+        // Null for fields that cannot be written, such as the final fields of a record
+        private final MethodHandle setter;
+
+        FieldBinding(Field field, int index) {
+            this.getter = getter(field);
+            this.setter = setter(field);
+            this.name = field.getName();
+            this.index = index;
+            this.type = field.getType();
+            this.genericType = field.getGenericType();
+            this.defaultValue = type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+            if (type.isArray()) {
+                arrayKind = ArrayKind.ARRAY;
+                elementType = type.getComponentType();
+            } else if (Collection.class.isAssignableFrom(type)) {
+                arrayKind = List.class.isAssignableFrom(type) ? ArrayKind.LIST
+                        : Set.class.isAssignableFrom(type) ? ArrayKind.SET : ArrayKind.UNSUPPORTED;
+                elementType = typeArgument(field.getGenericType());
+            } else {
+                arrayKind = ArrayKind.UNSUPPORTED;
+                elementType = Object.class;
+            }
+        }
+
+        Object get(Object instance) {
+            try {
+                return (Object) getter.invokeExact(instance);
+            } catch (Throwable e) {
+                throw new JSONException("Error accessing field: " + name, e);
+            }
+        }
+
+        void set(Object instance, Object value) {
+            if (setter == null) {
+                throw new JSONException("Cannot set field: " + name);
+            }
+            try {
+                setter.invokeExact(instance, value);
+            } catch (Throwable e) {
+                throw new JSONException("Error setting field: " + name, e);
+            }
+        }
+
+        private static MethodHandle getter(Field field) {
+            try {
+                return LOOKUP.unreflectGetter(field).asType(GETTER_TYPE);
+            } catch (IllegalAccessException e) {
+                throw new JSONException("Error accessing field: " + field.getName(), e);
+            }
+        }
+
+        private static MethodHandle setter(Field field) {
+            try {
+                return LOOKUP.unreflectSetter(field).asType(SETTER_TYPE);
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+        }
+
+        private static Class<?> typeArgument(Type genericType) {
+            if (genericType instanceof ParameterizedType) {
+                Type argument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+                if (argument instanceof Class) {
+                    return (Class<?>) argument;
+                }
+                if (argument instanceof ParameterizedType) {
+                    return (Class<?>) ((ParameterizedType) argument).getRawType();
+                }
+            }
+            return Object.class;
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.jsonparser;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+// Backing list for JSONArray: numbers of one kind are kept in a primitive array, anything else switches to boxed storage
+final class ElementList extends AbstractList<Object> implements RandomAccess {
+    private static final int INITIAL_CAPACITY = 10;
+
+    private enum Kind { EMPTY, INT, LONG, DOUBLE, BOXED }
+
+    private Kind kind = Kind.EMPTY;
+    private int[] ints;
+    private long[] longs;
+    private double[] doubles;
+    private List<Object> boxed;
+    private int size;
+
+    @Override
+    public int size() {
+        return kind == Kind.BOXED ? boxed.size() : size;
+    }
+
+    @Override
+    public Object get(int index) {
+        switch (kind) {
+            case INT:
+                return ints[checkIndex(index)];
+            case LONG:
+                return box(longs[checkIndex(index)]);
+            case DOUBLE:
+                return doubles[checkIndex(index)];
+            case BOXED:
+                return boxed.get(index);
+            default:
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: 0");
+        }
+    }
+
+    @Override
+    public Object set(int index, Object element) {
+        Object previous = get(index);
+        if (accept(element)) {
+            store(index, element);
+        } else {
+            boxed.set(index, element);
+        }
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Object element) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        if (!accept(element)) {
+            boxed.add(index, element);
+            modCount++;
+            return;
+        }
+        grow();
+        switch (kind) {
+            case INT:
+                System.arraycopy(ints, index, ints, index + 1, size - index);
+                break;
+            case LONG:
+                System.arraycopy(longs, index, longs, index + 1, size - index);
+                break;
+            default:
+                System.arraycopy(doubles, index, doubles, index + 1, size - index);
+                break;
+        }
+        size++;
+        store(index, element);
+        modCount++;
+    }
+
+    @Override
+    public Object remove(int index) {
+        Object previous = get(index);
+        if (kind == Kind.BOXED) {
+            boxed.remove(index);
+        } else {
+            int moved = size - index - 1;
+            switch (kind) {
+                case INT:
+                    System.arraycopy(ints, index + 1, ints, index, moved);
+                    break;
+                case LONG:
+                    System.arraycopy(longs, index + 1, longs, index, moved);
+                    break;
+                default:
+                    System.arraycopy(doubles, index + 1, doubles, index, moved);
+                    break;
+            }
+            size--;
+        }
+        modCount++;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        kind = Kind.EMPTY;
+        ints = null;
+        longs = null;
+        doubles = null;
+        boxed = null;
+        size = 0;
+        modCount++;
+    }
+
+    // Appends a parsed integer without boxing it; values that fit an int read back as Integer, like the tree builder's
+    void addLong(long value) {
+        boolean fitsInt = fitsInt(value);
+        if (kind == Kind.EMPTY) {
+            kind = fitsInt ? Kind.INT : Kind.LONG;
+        } else if (kind == Kind.INT && !fitsInt) {
+            widenToLong();
+        } else if (kind != Kind.INT && kind != Kind.LONG) {
+            add(fitsInt ? (Object) (int) value : (Object) value);
+            return;
+        }
+        grow();
+        if (kind == Kind.INT) {
+            ints[size++] = (int) value;
+        } else {
+            longs[size++] = value;
+        }
+        modCount++;
+    }
+
+    void addDouble(double value) {
+        if (kind == Kind.EMPTY) {
+            kind = Kind.DOUBLE;
+        } else if (kind != Kind.DOUBLE) {
+            add(value);
+            return;
+        }
+        grow();
+        doubles[size++] = value;
+        modCount++;
+    }
+
+    // Only boxed storage can hold values other than numbers
+    boolean holdsObjects() {
+        return kind == Kind.BOXED;
+    }
+
+    ElementList copy() {
+        ElementList copy = new ElementList();
+        copy.kind = kind;
+        copy.size = size;
+        copy.ints = ints == null ? null : ints.clone();
+        copy.longs = longs == null ? null : longs.clone();
+        copy.doubles = doubles == null ? null : doubles.clone();
+        copy.boxed = boxed == null ? null : new ArrayList<>(boxed);
+        return copy;
+    }
+
+    int getInt(int index) {
+        switch (kind) {
+            case INT:
+                return ints[checkIndex(index)];
+            case LONG:
+                return (int) integral(index, longs[checkIndex(index)], Integer.MIN_VALUE, Integer.MAX_VALUE);
+            case DOUBLE:
+                throw notIntegral(index, doubles[checkIndex(index)]);
+            default:
+                return (int) integral(index, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+    }
+
+    long getLong(int index) {
+        switch (kind) {
+            case INT:
+                return ints[checkIndex(index)];
+            case LONG:
+                return longs[checkIndex(index)];
+            case DOUBLE:
+                throw notIntegral(index, doubles[checkIndex(index)]);
+            default:
+                return integral(index, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+    }
+
+    double getDouble(int index) {
+        switch (kind) {
+            case INT:
+                return ints[checkIndex(index)];
+            case LONG:
+                return longs[checkIndex(index)];
+            case DOUBLE:
+                return doubles[checkIndex(index)];
+            default:
+                return number(index).doubleValue();
+        }
+    }
+
+    int[] toIntArray() {
+        if (kind == Kind.INT) {
+            return Arrays.copyOf(ints, size);
+        }
+        int[] result = new int[size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = getInt(i);
+        }
+        return result;
+    }
+
+    long[] toLongArray() {
+        if (kind == Kind.LONG) {
+            return Arrays.copyOf(longs, size);
+        }
+        long[] result = new long[size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = getLong(i);
+        }
+        return result;
+    }
+
+    double[] toDoubleArray() {
+        if (kind == Kind.DOUBLE) {
+            return Arrays.copyOf(doubles, size);
+        }
+        double[] result = new double[size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = getDouble(i);
+        }
+        return result;
+    }
+
+    // Decides whether the element can join primitive storage, switching storage kind or boxing everything if needed.
+    // A small Long stays boxed so that it still reads back as a Long rather than an Integer
+    private boolean accept(Object element) {
+        if (kind == Kind.BOXED) {
+            return false;
+        }
+        Kind wanted;
+        if (element instanceof Integer) {
+            wanted = Kind.INT;
+        } else if (element instanceof Long && !fitsInt((Long) element)) {
+            wanted = Kind.LONG;
+        } else if (element instanceof Double) {
+            wanted = Kind.DOUBLE;
+        } else {
+            wanted = Kind.BOXED;
+        }
+        if (kind == Kind.EMPTY && wanted != Kind.BOXED) {
+            kind = wanted;
+        } else if (kind == Kind.INT && wanted == Kind.LONG) {
+            widenToLong();
+        } else if (kind != wanted && !(kind == Kind.LONG && wanted == Kind.INT)) {
+            toBoxed();
+            return false;
+        }
+        return true;
+    }
+
+    private void store(int index, Object element) {
+        switch (kind) {
+            case INT:
+                ints[index] = (Integer) element;
+                break;
+            case LONG:
+                longs[index] = ((Number) element).longValue();
+                break;
+            default:
+                doubles[index] = (Double) element;
+                break;
+        }
+    }
+
+    private void grow() {
+        switch (kind) {
+            case INT:
+                if (ints == null) {
+                    ints = new int[INITIAL_CAPACITY];
+                } else if (size == ints.length) {
+                    ints = Arrays.copyOf(ints, size * 2);
+                }
+                break;
+            case LONG:
+                if (longs == null) {
+                    longs = new long[INITIAL_CAPACITY];
+                } else if (size == longs.length) {
+                    longs = Arrays.copyOf(longs, size * 2);
+                }
+                break;
+            default:
+                if (doubles == null) {
+                    doubles = new double[INITIAL_CAPACITY];
+                } else if (size == doubles.length) {
+                    doubles = Arrays.copyOf(doubles, size * 2);
+                }
+                break;
+        }
+    }
+
+    private void widenToLong() {
+        longs = new long[Math.max(INITIAL_CAPACITY, ints == null ? 0 : ints.length)];
+        for (int i = 0; i < size; i++) {
+            longs[i] = ints[i];
+        }
+        ints = null;
+        kind = Kind.LONG;
+    }
+
+    private void toBoxed() {
+        List<Object> elements = new ArrayList<>(Math.max(INITIAL_CAPACITY, size + 1));
+        for (int i = 0; i < size; i++) {
+            elements.add(get(i));
+        }
+        boxed = elements;
+        ints = null;
+        longs = null;
+        doubles = null;
+        size = 0;
+        kind = Kind.BOXED;
+    }
+
+    private Number number(int index) {
+        Object value = get(index);
+        if (!(value instanceof Number)) {
+            throw new JSONException("Element at index " + index + " is not a number");
+        }
+        return (Number) value;
+    }
+
+    // Integer reads accept whole numbers in range only, the same as parseToClass, instead of truncating or wrapping
+    private long integral(int index, long min, long max) {
+        Number value = number(index);
+        if (!(value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)) {
+            throw notIntegral(index, value);
+        }
+        return integral(index, value.longValue(), min, max);
+    }
+
+    private static long integral(int index, long value, long min, long max) {
+        if (value < min || value > max) {
+            throw notIntegral(index, value);
+        }
+        return value;
+    }
+
+    private static JSONException notIntegral(int index, Object value) {
+        return new JSONException("Element at index " + index + " is not an integer in range: " + value);
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return index;
+    }
+
+    private static Object box(long value) {
+        return fitsInt(value) ? (Object) (int) value : (Object) value;
+    }
+
+    private static boolean fitsInt(long value) {
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+    }
+}
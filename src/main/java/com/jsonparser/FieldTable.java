@@ -0,0 +1,123 @@
+package com.jsonparser;
+
+import java.util.Arrays;
+
+// Insertion-ordered hash table for JSONObjects too large for a Shape. Keys and values live in flat arrays in
+// insertion order, so iteration is a sequential walk; an open-addressed index maps keys to their positions.
+// A removed field leaves a null key behind until the next rebuild, so positions stay stable during iteration
+final class FieldTable {
+    private String[] keys;
+    private Object[] values;
+    // Linear probing; each slot holds position + 1, zero marks an empty slot
+    private int[] index;
+    private int end;
+    private int size;
+
+    FieldTable(int capacity) {
+        keys = new String[capacity];
+        values = new Object[capacity];
+        index = new int[indexSize(capacity)];
+    }
+
+    FieldTable copy() {
+        FieldTable copy = new FieldTable(0);
+        copy.keys = keys.clone();
+        copy.values = values.clone();
+        copy.index = index.clone();
+        copy.end = end;
+        copy.size = size;
+        return copy;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Positions run from 0 to end(); removed positions have a null key
+    int end() {
+        return end;
+    }
+
+    String key(int position) {
+        return keys[position];
+    }
+
+    Object value(int position) {
+        return values[position];
+    }
+
+    void setValue(int position, Object value) {
+        values[position] = value;
+    }
+
+    int indexOf(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        int mask = index.length - 1;
+        for (int slot = spread(key.hashCode()) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            String candidate = keys[index[slot] - 1];
+            if (candidate == key || (candidate != null && candidate.equals(key))) {
+                return index[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    // The caller guarantees the key is absent
+    void add(String key, Object value) {
+        if (end == keys.length) {
+            rebuild(size >= keys.length / 2 ? keys.length * 2 : keys.length);
+        }
+        keys[end] = key;
+        values[end] = value;
+        insert(key, end);
+        end++;
+        size++;
+    }
+
+    void remove(int position) {
+        keys[position] = null;
+        values[position] = null;
+        size--;
+    }
+
+    private void rebuild(int capacity) {
+        String[] oldKeys = keys;
+        Object[] oldValues = values;
+        int oldEnd = end;
+        keys = new String[capacity];
+        values = new Object[capacity];
+        if (index.length == indexSize(capacity)) {
+            Arrays.fill(index, 0);
+        } else {
+            index = new int[indexSize(capacity)];
+        }
+        end = 0;
+        for (int i = 0; i < oldEnd; i++) {
+            if (oldKeys[i] != null) {
+                keys[end] = oldKeys[i];
+                values[end] = oldValues[i];
+                insert(oldKeys[i], end);
+                end++;
+            }
+        }
+    }
+
+    private void insert(String key, int position) {
+        int mask = index.length - 1;
+        int slot = spread(key.hashCode()) & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = position + 1;
+    }
+
+    private static int indexSize(int capacity) {
+        return Integer.highestOneBit(Math.max(1, capacity)) << 2;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -3,10 +3,15 @@ package com.jsonparser;
 import java.util.*;
 
 public class JSONArray implements List<Object> {
-    private final List<Object> list;
+    private final ElementList list;
+    private boolean frozen;
 
     public JSONArray() {
-        list = new ArrayList<>();
+        list = new ElementList();
+    }
+
+    private JSONArray(ElementList list) {
+        this.list = list;
     }
 
     @Override
@@ -21,115 +26,237 @@ public class JSONArray implements List<Object> {
 
     @Override
     public boolean contains(Object o) {
+        materializeAll();
         return list.contains(o);
     }
 
     @Override
     public Iterator<Object> iterator() {
-        return list.iterator();
+        materializeAll();
+        return frozen ? Collections.unmodifiableList(list).iterator() : list.iterator();
     }
 
     @Override
     public Object[] toArray() {
+        materializeAll();
         return list.toArray();
     }
 
     @Override
     public <T> T[] toArray(T[] a) {
+        materializeAll();
         return list.toArray(a);
     }
 
     @Override
     public boolean add(Object o) {
+        checkMutable();
         return list.add(o);
     }
 
     @Override
     public boolean remove(Object o) {
+        checkMutable();
+        materializeAll();
         return list.remove(o);
     }
 
     @Override
     public boolean containsAll(Collection<?> c) {
+        materializeAll();
         return list.containsAll(c);
     }
 
     @Override
     public boolean addAll(Collection<?> c) {
+        checkMutable();
         return list.addAll(c);
     }
 
     @Override
     public boolean addAll(int index, Collection<?> c) {
+        checkMutable();
         return list.addAll(index, c);
     }
 
     @Override
     public boolean removeAll(Collection<?> c) {
+        checkMutable();
+        materializeAll();
         return list.removeAll(c);
     }
 
     @Override
     public boolean retainAll(Collection<?> c) {
+        checkMutable();
+        materializeAll();
         return list.retainAll(c);
     }
 
     @Override
     public void clear() {
+        checkMutable();
         list.clear();
     }
 
     @Override
     public Object get(int index) {
-        return list.get(index);
+        Object value = list.get(index);
+        if (value instanceof LazyValue) {
+            value = ((LazyValue) value).materialize();
+            list.set(index, value);
+        }
+        return value;
     }
 
     @Override
     public Object set(int index, Object element) {
-        return list.set(index, element);
+        checkMutable();
+        return LazyValue.resolve(list.set(index, element));
     }
 
     @Override
     public void add(int index, Object element) {
+        checkMutable();
         list.add(index, element);
     }
 
     @Override
     public Object remove(int index) {
-        return list.remove(index);
+        checkMutable();
+        return LazyValue.resolve(list.remove(index));
     }
 
     @Override
     public int indexOf(Object o) {
+        materializeAll();
         return list.indexOf(o);
     }
 
     @Override
     public int lastIndexOf(Object o) {
+        materializeAll();
         return list.lastIndexOf(o);
     }
 
     @Override
     public ListIterator<Object> listIterator() {
-        return list.listIterator();
+        return listIterator(0);
     }
 
     @Override
     public ListIterator<Object> listIterator(int index) {
-        return list.listIterator(index);
+        materializeAll();
+        return frozen ? Collections.unmodifiableList(list).listIterator(index) : list.listIterator(index);
     }
 
     @Override
     public List<Object> subList(int fromIndex, int toIndex) {
-        return list.subList(fromIndex, toIndex);
+        materializeAll();
+        List<Object> view = list.subList(fromIndex, toIndex);
+        return frozen ? Collections.unmodifiableList(view) : view;
+    }
+
+    // Primitive accessors read numeric arrays without boxing; they throw JSONException for non-numeric elements,
+    // and the integer ones also for fractions and values out of range rather than truncating them
+    public int getInt(int index) {
+        return list.getInt(index);
+    }
+
+    public long getLong(int index) {
+        return list.getLong(index);
+    }
+
+    public double getDouble(int index) {
+        return list.getDouble(index);
+    }
+
+    public int[] toIntArray() {
+        return list.toIntArray();
     }
 
+    public long[] toLongArray() {
+        return list.toLongArray();
+    }
+
+    public double[] toDoubleArray() {
+        return list.toDoubleArray();
+    }
+
+    void addLong(long value) {
+        list.addLong(value);
+    }
+
+    void addDouble(double value) {
+        list.addDouble(value);
+    }
+
+    // A frozen array is returned as a read-only view instead of a copy
     public List<Object> toList() {
+        if (frozen) {
+            return Collections.unmodifiableList(this);
+        }
+        materializeAll();
         return new ArrayList<>(list);
     }
 
+    // Makes this array and everything reachable from it read-only, so it can be shared between threads
+    public JSONArray freeze() {
+        JSONObject.freeze(this);
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    // A copy with one element replaced; nested values are shared and the copy is frozen if this array is
+    public JSONArray with(int index, Object element) {
+        JSONArray copy = copy();
+        copy.list.set(index, element);
+        return frozen ? copy.freeze() : copy;
+    }
+
+    public JSONArray without(int index) {
+        JSONArray copy = copy();
+        copy.list.remove(index);
+        return frozen ? copy.freeze() : copy;
+    }
+
+    private JSONArray copy() {
+        materializeAll();
+        return new JSONArray(list.copy());
+    }
+
+    boolean holdsObjects() {
+        return list.holdsObjects();
+    }
+
+    // Called by JSONObject.freeze, which then freezes the elements
+    void markFrozen() {
+        frozen = true;
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new UnsupportedOperationException("JSONArray is frozen");
+        }
+    }
+
+    private void materializeAll() {
+        if (!list.holdsObjects()) {
+            return;
+        }
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) instanceof LazyValue) {
+                list.set(i, ((LazyValue) list.get(i)).materialize());
+            }
+        }
+    }
+
     @Override
     public String toString() {
+        materializeAll();
         StringBuilder sb = new StringBuilder();
         sb.append("[");
         boolean first = true;
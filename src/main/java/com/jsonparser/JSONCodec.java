@@ -0,0 +1,14 @@
+package com.jsonparser;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Asks JSONCodecProcessor to generate a TypeCodec for this class or record at compile time, so parseToClass and
+// JSONSerializer handle it without reflection. Fields must be non-private or have a getX/isX getter and a setX
+// setter; a class needs a non-private no-arg constructor, and a nested class must be static
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface JSONCodec {
+}
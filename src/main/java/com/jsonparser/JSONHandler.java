@@ -0,0 +1,28 @@
+package com.jsonparser;
+
+public interface JSONHandler {
+    void startObject();
+
+    void key(CharSequence key);
+
+    void endObject();
+
+    void startArray();
+
+    void endArray();
+
+    void value(long value);
+
+    void value(double value);
+
+    void value(CharSequence value);
+
+    void value(boolean value);
+
+    void nullValue();
+
+    // Receives BigInteger/BigDecimal values in exact number mode
+    default void value(Number value) {
+        value(value.doubleValue());
+    }
+}
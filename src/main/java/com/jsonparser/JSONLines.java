@@ -0,0 +1,223 @@
+package com.jsonparser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Newline-delimited JSON: the input is cut into large chunks on line boundaries and the chunks are parsed concurrently
+public final class JSONLines {
+    private static final int CHUNK_SIZE = 4 << 20;
+
+    private JSONLines() {
+    }
+
+    public static Stream<JSONObject> stream(Path path) {
+        return stream(path, true);
+    }
+
+    public static Stream<JSONObject> stream(Path path, boolean ordered) {
+        try {
+            return stream(Files.newInputStream(path), ordered, ForkJoinPool.commonPool());
+        } catch (IOException e) {
+            throw new JSONException("Error opening " + path, e);
+        }
+    }
+
+    public static Stream<JSONObject> stream(InputStream in, boolean ordered) {
+        return stream(in, ordered, ForkJoinPool.commonPool());
+    }
+
+    // Closing the stream closes the input
+    public static Stream<JSONObject> stream(InputStream in, boolean ordered, Executor executor) {
+        ChunkIterator iterator = new ChunkIterator(in, ordered, executor);
+        int characteristics = ordered ? Spliterator.ORDERED | Spliterator.NONNULL : Spliterator.NONNULL;
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, characteristics), false)
+                .onClose(iterator::close);
+    }
+
+    private static List<JSONObject> parseChunk(byte[] buffer, int length, long offset, KeyCache keyCache) {
+        List<JSONObject> records = new ArrayList<>();
+        int start = 0;
+        while (start < length) {
+            int end = start;
+            while (end < length && buffer[end] != '\n') {
+                end++;
+            }
+            int lineEnd = end > start && buffer[end - 1] == '\r' ? end - 1 : end;
+            if (!isBlank(buffer, start, lineEnd)) {
+                try {
+                    JSONReader reader = new UTF8JSONReader(buffer, start, lineEnd - start);
+                    JSONParser parser = new JSONParser(reader);
+                    parser.setKeyCache(keyCache);
+                    Object record = parser.parse();
+                    if (!(record instanceof JSONObject)) {
+                        throw new JSONException("Root element is not a JSONObject");
+                    }
+                    records.add((JSONObject) record);
+                } catch (JSONException e) {
+                    throw new JSONException("Invalid JSON line at offset " + (offset + start) + ": " + e.getMessage(), e);
+                }
+            }
+            start = end + 1;
+        }
+        return records;
+    }
+
+    private static boolean isBlank(byte[] buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = buffer[i];
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record Chunk(byte[] buffer, int length) {
+    }
+
+    private static class ChunkIterator implements Iterator<JSONObject> {
+        private final InputStream in;
+        private final boolean ordered;
+        private final Executor executor;
+        private final int window = Runtime.getRuntime().availableProcessors() * 2;
+        private final KeyCache keyCache = new KeyCache(1024);
+
+        // Every submitted chunk not yet taken, in submission order, so that close can cancel them in either mode
+        private final Deque<CompletableFuture<List<JSONObject>>> pending = new ArrayDeque<>();
+        private final BlockingQueue<CompletableFuture<List<JSONObject>>> completed = new LinkedBlockingQueue<>();
+        private int inFlight;
+
+        private byte[] carry = new byte[0];
+        private int carryLength;
+        private long offset;
+        private boolean eof;
+        private Iterator<JSONObject> current = Collections.emptyIterator();
+
+        ChunkIterator(InputStream in, boolean ordered, Executor executor) {
+            this.in = in;
+            this.ordered = ordered;
+            this.executor = executor;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                submitChunks();
+                if (inFlight == 0) {
+                    return false;
+                }
+                current = takeChunk().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public JSONObject next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        void close() {
+            eof = true;
+            pending.forEach(future -> future.cancel(false));
+            try {
+                in.close();
+            } catch (IOException e) {
+                throw new JSONException("Error closing input", e);
+            }
+        }
+
+        private void submitChunks() {
+            while (!eof && inFlight < window) {
+                Chunk chunk = readChunk();
+                if (chunk == null) {
+                    eof = true;
+                    break;
+                }
+                long chunkOffset = offset;
+                offset += chunk.length();
+                CompletableFuture<List<JSONObject>> future = CompletableFuture.supplyAsync(
+                        () -> parseChunk(chunk.buffer(), chunk.length(), chunkOffset, keyCache), executor);
+                pending.add(future);
+                if (!ordered) {
+                    future.whenComplete((records, error) -> completed.add(future));
+                }
+                inFlight++;
+            }
+        }
+
+        private List<JSONObject> takeChunk() {
+            inFlight--;
+            try {
+                CompletableFuture<List<JSONObject>> future = ordered ? pending.poll() : completed.take();
+                if (!ordered) {
+                    pending.remove(future);
+                }
+                return future.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JSONException("Interrupted while waiting for a chunk", e);
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof JSONException) {
+                    throw (JSONException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        // Returns the next run of complete lines, or null at end of input
+        private Chunk readChunk() {
+            byte[] buffer = Arrays.copyOf(carry, Math.max(CHUNK_SIZE, carryLength * 2));
+            int length = carryLength;
+            int scanned = carryLength;
+            try {
+                while (true) {
+                    int read = in.read(buffer, length, buffer.length - length);
+                    if (read < 0) {
+                        carryLength = 0;
+                        return length == 0 ? null : new Chunk(buffer, length);
+                    }
+                    length += read;
+                    if (length < buffer.length) {
+                        continue;
+                    }
+                    int lastNewline = length - 1;
+                    while (lastNewline >= scanned && buffer[lastNewline] != '\n') {
+                        lastNewline--;
+                    }
+                    if (lastNewline >= scanned) {
+                        carryLength = length - lastNewline - 1;
+                        carry = Arrays.copyOfRange(buffer, lastNewline + 1, length);
+                        return new Chunk(buffer, lastNewline + 1);
+                    }
+                    scanned = length;
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+            } catch (IOException e) {
+                throw new JSONException("Error reading input", e);
+            }
+        }
+    }
+}
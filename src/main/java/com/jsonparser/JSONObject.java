@@ -3,74 +3,308 @@ package com.jsonparser;
 import java.util.*;
 
 public class JSONObject implements Map<String, Object> {
-    private final Map<String, Object> map;
+    private static final int INITIAL_CAPACITY = 4;
+
+    // Small objects keep a shared Shape plus their own values; past Shape.MAX_KEYS they move to a FieldTable.
+    // Either way fields are addressed by position, in insertion order
+    private Shape shape;
+    private Object[] values;
+    private FieldTable table;
+    private boolean frozen;
 
     public JSONObject() {
-        map = new HashMap<>();
+        shape = Shape.EMPTY;
     }
 
     @Override
     public int size() {
-        return map.size();
+        return table != null ? table.size() : shape.size();
     }
 
     @Override
     public boolean isEmpty() {
-        return map.isEmpty();
+        return size() == 0;
     }
 
     @Override
     public boolean containsKey(Object key) {
-        return map.containsKey(key);
+        return find(key) >= 0;
     }
 
     @Override
     public boolean containsValue(Object value) {
-        return map.containsValue(value);
+        for (int i = 0; i < end(); i++) {
+            if (keyAt(i) != null && Objects.equals(value, valueAt(i))) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
     public Object get(Object key) {
-        return map.get(key);
+        int position = find(key);
+        return position >= 0 ? valueAt(position) : null;
     }
 
     @Override
     public Object put(String key, Object value) {
-        return map.put(key, value);
+        checkMutable();
+        Objects.requireNonNull(key, "key");
+        int position = find(key);
+        if (position >= 0) {
+            Object previous = rawValue(position);
+            store(position, value);
+            return LazyValue.resolve(previous);
+        }
+        if (table != null) {
+            table.add(key, value);
+            return null;
+        }
+        int size = shape.size();
+        if (size == Shape.MAX_KEYS) {
+            table = new FieldTable(size * 2);
+            for (int i = 0; i < size; i++) {
+                table.add(shape.key(i), values[i]);
+            }
+            table.add(key, value);
+            shape = null;
+            values = null;
+            return null;
+        }
+        if (values == null) {
+            values = new Object[INITIAL_CAPACITY];
+        } else if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        shape = shape.with(key);
+        values[size] = value;
+        return null;
     }
 
     @Override
     public Object remove(Object key) {
-        return map.remove(key);
+        checkMutable();
+        int position = find(key);
+        if (position < 0) {
+            return null;
+        }
+        Object previous = rawValue(position);
+        removeAt(position);
+        return LazyValue.resolve(previous);
     }
 
     @Override
     public void putAll(Map<? extends String, ?> m) {
-        map.putAll(m);
+        checkMutable();
+        for (Map.Entry<? extends String, ?> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
     }
 
     @Override
     public void clear() {
-        map.clear();
+        checkMutable();
+        shape = Shape.EMPTY;
+        values = null;
+        table = null;
     }
 
     @Override
     public Set<String> keySet() {
-        return map.keySet();
+        return new AbstractSet<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new FieldIterator<String>() {
+                    @Override
+                    String element(int position) {
+                        return keyAt(position);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return JSONObject.this.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+        };
     }
 
     @Override
     public Collection<Object> values() {
-        return map.values();
+        return new AbstractCollection<Object>() {
+            @Override
+            public Iterator<Object> iterator() {
+                return new FieldIterator<Object>() {
+                    @Override
+                    Object element(int position) {
+                        return valueAt(position);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return JSONObject.this.size();
+            }
+        };
     }
 
     @Override
     public Set<Entry<String, Object>> entrySet() {
-        return map.entrySet();
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new FieldIterator<Entry<String, Object>>() {
+                    @Override
+                    Entry<String, Object> element(int position) {
+                        return new Field(position);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return JSONObject.this.size();
+            }
+        };
     }
 
+    // A frozen object is returned as a read-only view instead of a copy
     public Map<String, Object> toMap() {
-        return new HashMap<>(map);
+        if (frozen) {
+            return Collections.unmodifiableMap(this);
+        }
+        Map<String, Object> copy = new LinkedHashMap<>();
+        for (int i = 0; i < end(); i++) {
+            if (keyAt(i) != null) {
+                copy.put(keyAt(i), valueAt(i));
+            }
+        }
+        return copy;
+    }
+
+    // Makes this object and everything reachable from it read-only, so it can be shared between threads
+    public JSONObject freeze() {
+        freeze(this);
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    // A copy with one field added or replaced. Nested values are shared rather than copied, and a small object
+    // keeps its Shape, so only the top-level value array is duplicated. The copy is frozen if this object is
+    public JSONObject with(String key, Object value) {
+        JSONObject copy = copy();
+        copy.put(key, value);
+        return frozen ? copy.freeze() : copy;
+    }
+
+    public JSONObject without(String key) {
+        JSONObject copy = copy();
+        copy.remove(key);
+        return frozen ? copy.freeze() : copy;
+    }
+
+    private JSONObject copy() {
+        JSONObject copy = new JSONObject();
+        for (int i = 0; i < end(); i++) {
+            if (keyAt(i) != null) {
+                valueAt(i);
+            }
+        }
+        copy.shape = shape;
+        copy.values = values == null ? null : values.clone();
+        copy.table = table == null ? null : table.copy();
+        return copy;
+    }
+
+    // Iterative so that deeply nested documents cannot overflow the stack; lazy values are built before freezing
+    static void freeze(Object root) {
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Object value = pending.pop();
+            if (value instanceof JSONObject && !((JSONObject) value).frozen) {
+                JSONObject jsonObject = (JSONObject) value;
+                jsonObject.frozen = true;
+                for (int i = 0; i < jsonObject.end(); i++) {
+                    if (jsonObject.keyAt(i) != null && jsonObject.valueAt(i) != null) {
+                        pending.push(jsonObject.valueAt(i));
+                    }
+                }
+            } else if (value instanceof JSONArray && !((JSONArray) value).isFrozen()) {
+                JSONArray jsonArray = (JSONArray) value;
+                jsonArray.markFrozen();
+                if (jsonArray.holdsObjects()) {
+                    for (Object element : jsonArray) {
+                        if (element != null) {
+                            pending.push(element);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new UnsupportedOperationException("JSONObject is frozen");
+        }
+    }
+
+    private int find(Object key) {
+        return table != null ? table.indexOf(key) : shape.indexOf(key);
+    }
+
+    // Positions run from 0 to end(); a FieldTable leaves removed positions behind with a null key
+    private int end() {
+        return table != null ? table.end() : shape.size();
+    }
+
+    private String keyAt(int position) {
+        return table != null ? table.key(position) : shape.key(position);
+    }
+
+    private Object rawValue(int position) {
+        return table != null ? table.value(position) : values[position];
+    }
+
+    private Object valueAt(int position) {
+        Object value = rawValue(position);
+        if (value instanceof LazyValue) {
+            value = ((LazyValue) value).materialize();
+            store(position, value);
+        }
+        return value;
+    }
+
+    private void store(int position, Object value) {
+        if (table != null) {
+            table.setValue(position, value);
+        } else {
+            values[position] = value;
+        }
+    }
+
+    // Returns whether later positions moved down by one
+    private boolean removeAt(int position) {
+        if (table != null) {
+            table.remove(position);
+            return false;
+        }
+        int size = shape.size();
+        System.arraycopy(values, position + 1, values, position, size - position - 1);
+        values[size - 1] = null;
+        shape = shape.without(position);
+        return true;
     }
 
     @Override
@@ -78,23 +312,109 @@ public class JSONObject implements Map<String, Object> {
         StringBuilder sb = new StringBuilder();
         sb.append("{");
         boolean first = true;
-        for (Map.Entry<String, Object> entry : map.entrySet()) {
+        for (int i = 0; i < end(); i++) {
+            String key = keyAt(i);
+            if (key == null) {
+                continue;
+            }
             if (!first) {
                 sb.append(",");
             }
             first = false;
-            sb.append("\"").append(entry.getKey()).append("\":");
-            sb.append(valueToString(entry.getValue()));
+            sb.append("\"").append(key).append("\":");
+            sb.append(valueToString(valueAt(i)));
         }
         sb.append("}");
         return sb.toString();
     }
 
+    // Walks the fields in insertion order; remove() goes through the owning object
+    private abstract class FieldIterator<E> implements Iterator<E> {
+        private int next;
+        private int current = -1;
+
+        abstract E element(int position);
+
+        @Override
+        public boolean hasNext() {
+            while (next < end() && keyAt(next) == null) {
+                next++;
+            }
+            return next < end();
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            current = next++;
+            return element(current);
+        }
+
+        @Override
+        public void remove() {
+            checkMutable();
+            if (current < 0) {
+                throw new IllegalStateException();
+            }
+            if (removeAt(current)) {
+                next = current;
+            }
+            current = -1;
+        }
+    }
+
+    private class Field implements Map.Entry<String, Object> {
+        private final int position;
+
+        Field(int position) {
+            this.position = position;
+        }
+
+        @Override
+        public String getKey() {
+            return keyAt(position);
+        }
+
+        @Override
+        public Object getValue() {
+            return valueAt(position);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            checkMutable();
+            Object previous = valueAt(position);
+            store(position, value);
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            return getKey().equals(other.getKey()) && Objects.equals(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
     public static String valueToString(Object value) {
         if (value == null) {
             return "null";
-        } else if (value instanceof String) {
-            return "\"" + escapeString((String) value) + "\"";
+        } else if (value instanceof CharSequence) {
+            return "\"" + escapeString(value.toString()) + "\"";
         } else if (value instanceof Number || value instanceof Boolean) {
             return value.toString();
         } else if (value instanceof JSONObject || value instanceof JSONArray) {
@@ -1,183 +1,568 @@
 package com.jsonparser;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
-import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.util.*;
 
-public class JSONParser {
-    private final List<String> tokens;
-    private int position;
+public class JSONParser implements Closeable {
+    private JSONReader reader;
+    private JSONTreeBuilder builder;
+    private boolean frozen;
+    private boolean stringViews;
+    // The container ends recorded for the range parseLazy is reading, and the entry of its next nested container
+    private int[] lazyIndex;
+    private int lazyEntry;
+
+    public JSONParser(JSONReader reader) {
+        this.reader = reader;
+    }
 
     public JSONParser(String json) {
-        JSONTokenizer tokenizer = new JSONTokenizer(json);
-        this.tokens = tokenizer.tokenize();
-        this.position = 0;
+        this.reader = new JSONReader(json);
     }
 
-    public Object parse() {
-        String token = tokens.get(position);
-        if (token.equals("{")) {
-            return parseObject();
-        } else if (token.equals("[")) {
-            return parseArray();
+    public JSONParser(Reader reader) {
+        this.reader = new JSONReader(reader);
+    }
+
+    public JSONParser(byte[] json) {
+        this.reader = new UTF8JSONReader(json);
+    }
+
+    public JSONParser(InputStream in) {
+        this.reader = new UTF8JSONReader(in);
+    }
+
+    public JSONParser(Path path) {
+        try {
+            this.reader = new MappedJSONReader(path);
+        } catch (IOException e) {
+            throw new JSONException("Error opening " + path, e);
+        }
+    }
+
+    // Reuses this parser for new input, keeping its buffers, key cache, container stacks and options
+    public void reset(String json) {
+        if (reader instanceof MappedJSONReader) {
+            replaceReader(new JSONReader(json));
         } else {
+            reader.reset(json);
+        }
+    }
+
+    public void reset(byte[] json) {
+        if (reader instanceof UTF8JSONReader && !(reader instanceof MappedJSONReader)) {
+            ((UTF8JSONReader) reader).reset(json);
+        } else {
+            replaceReader(new UTF8JSONReader(json));
+        }
+    }
+
+    // A mapped file was opened by this parser, so it is closed here; streams and readers belong to the caller
+    private void replaceReader(JSONReader next) {
+        next.setExactNumbers(reader.isExactNumbers());
+        next.setKeyCache(reader.keyCache());
+        if (reader instanceof MappedJSONReader) {
+            reader.close();
+        }
+        reader = next;
+    }
+
+    @Override
+    public void close() {
+        reader.close();
+    }
+
+    public void setExactNumbers(boolean exactNumbers) {
+        reader.setExactNumbers(exactNumbers);
+    }
+
+    public void setKeyCache(KeyCache keyCache) {
+        reader.setKeyCache(keyCache);
+    }
+
+    // Makes parse() return frozen documents, see JSONObject.freeze()
+    public void setFrozen(boolean frozen) {
+        this.frozen = frozen;
+    }
+
+    // String values become JSONString views over the input instead of copies. Only inputs held in memory
+    // (String, char[], byte[]) produce views; escaped strings and streamed input are still decoded to String
+    public void setStringViews(boolean stringViews) {
+        this.stringViews = stringViews;
+    }
+
+    public Object parse() {
+        JSONTreeBuilder builder = treeBuilder();
+        parse(builder);
+        Object result = builder.result();
+        builder.reset(false);
+        return result;
+    }
+
+    // Anything but whitespace after the root value is rejected
+    public void parse(JSONHandler handler) {
+        JSONToken token = reader.nextToken();
+        if (token != JSONToken.START_OBJECT && token != JSONToken.START_ARRAY) {
+            throw new JSONException("Invalid JSON: must start with { or [");
+        }
+        emitValue(token, handler);
+        reader.requireEndOfInput();
+    }
+
+    // Binds the document straight into clazz without building a tree, see parseToClass
+    public <T> T parse(Class<T> clazz) {
+        JSONToken token = reader.nextToken();
+        if (token != JSONToken.START_OBJECT && token != JSONToken.START_ARRAY) {
             throw new JSONException("Invalid JSON: must start with { or [");
         }
+        if (clazz.isPrimitive()) {
+            throw new JSONException("Cannot convert " + (token == JSONToken.START_OBJECT ? "JSONObject" : "JSONArray")
+                    + " to " + clazz);
+        }
+        T result = clazz.cast(new ObjectBinder(this).bind(token, clazz));
+        reader.requireEndOfInput();
+        return result;
     }
 
-    private JSONObject parseObject() {
+    // Builds only the listed members of the root object. A dotted name such as "user.address.city" selects a
+    // member of a nested object, keeping the objects on its path; everything else is skipped without being built
+    public JSONObject parseFields(Set<String> fields) {
+        if (reader.nextToken() != JSONToken.START_OBJECT) {
+            throw new JSONException("Invalid JSON: must start with {");
+        }
+        JSONObject result = parseFields(fieldTree(fields));
+        reader.requireEndOfInput();
+        if (frozen) {
+            result.freeze();
+        }
+        return result;
+    }
+
+    // Each value is either TRUE (take the whole member) or the field tree for a nested object
+    private JSONObject parseFields(Map<String, Object> fields) {
         JSONObject jsonObject = new JSONObject();
-        position++; // Skip {
+        while (reader.nextToken() != JSONToken.END_OBJECT) {
+            String key = reader.currentString();
+            if (key.isEmpty())
+                throw new JSONException("Missing key");
+            Object selection = fields.get(key);
+            JSONToken token = reader.nextToken();
+            if (selection == Boolean.TRUE) {
+                jsonObject.put(key, buildValue(token));
+            } else if (selection != null && token == JSONToken.START_OBJECT) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> nested = (Map<String, Object>) selection;
+                jsonObject.put(key, parseFields(nested));
+            } else if (token == JSONToken.START_OBJECT || token == JSONToken.START_ARRAY) {
+                reader.skipContainer();
+            }
+        }
+        return jsonObject;
+    }
 
-        boolean expectingComma = false;
-        while (!tokens.get(position).equals("}")) {
-            if (expectingComma) {
-                if (!tokens.get(position).equals(",")) {
-                    throw new JSONException("Expected ,");
-                }
-                position++;
-                if (tokens.get(position).equals("}")) {
-                    throw new JSONException("Trailing comma in object");
+    private static Map<String, Object> fieldTree(Set<String> fields) {
+        Map<String, Object> tree = new HashMap<>();
+        for (String field : fields) {
+            Map<String, Object> node = tree;
+            String[] path = field.split("\\.", -1);
+            for (int i = 0; i < path.length - 1 && node != null; i++) {
+                Object child = node.get(path[i]);
+                if (child == null) {
+                    child = new HashMap<String, Object>();
+                    node.put(path[i], child);
                 }
+                @SuppressWarnings("unchecked")
+                Map<String, Object> next = child == Boolean.TRUE ? null : (Map<String, Object>) child;
+                node = next;
+            }
+            if (node != null) {
+                node.put(path[path.length - 1], Boolean.TRUE);
             }
+        }
+        return tree;
+    }
 
-            String key = parseString();
-            if (key.isEmpty())
-                throw new JSONException("Missing key");
+    // Parses a single value of any type that must fill the whole input
+    Object parseValue() {
+        JSONTreeBuilder builder = treeBuilder();
+        emitValue(reader.nextToken(), builder);
+        reader.requireEndOfInput();
+        Object result = builder.result();
+        builder.reset(false);
+        return result;
+    }
 
-            position++; // Skip :
-            Object value = parseValue();
-            jsonObject.put(key, value);
+    // Builds the value whose first token was just read, leaving the reader on its last token
+    Object buildValue(JSONToken token) {
+        JSONTreeBuilder builder = treeBuilder();
+        emitValue(token, builder);
+        Object result = builder.result();
+        builder.reset(false);
+        return result;
+    }
+
+    JSONReader reader() {
+        return reader;
+    }
 
-            expectingComma = true;
+    private JSONTreeBuilder treeBuilder() {
+        if (builder == null) {
+            builder = new JSONTreeBuilder();
         }
+        builder.reset(frozen);
+        return builder;
+    }
 
-        position++; // Skip }
-        return jsonObject;
+    // Builds only the root container; nested objects and arrays stay as offsets into the source until first access
+    Object parseLazy(JSONSource source) {
+        return parseLazy(source, null, 0);
     }
 
-    private JSONArray parseArray() {
-        JSONArray jsonArray = new JSONArray();
-        position++; // Skip [
+    // With an index from JSONReader.skipChildrenIndexed, nested containers are stepped over at their recorded ends;
+    // without one, each is validated here once and its own index recorded for when it is built
+    Object parseLazy(JSONSource source, int[] index, int from) {
+        lazyIndex = index;
+        lazyEntry = from;
+        JSONToken token = reader.nextToken();
+        if (token == JSONToken.START_OBJECT) {
+            JSONObject jsonObject = new JSONObject();
+            while (reader.nextToken() != JSONToken.END_OBJECT) {
+                String key = reader.currentString();
+                if (key.isEmpty())
+                    throw new JSONException("Missing key");
+                jsonObject.put(key, lazyValue(reader.nextToken(), source));
+            }
+            return jsonObject;
+        } else if (token == JSONToken.START_ARRAY) {
+            JSONArray jsonArray = new JSONArray();
+            while ((token = reader.nextToken()) != JSONToken.END_ARRAY) {
+                jsonArray.add(lazyValue(token, source));
+            }
+            return jsonArray;
+        } else {
+            throw new JSONException("Invalid JSON: must start with { or [");
+        }
+    }
 
-        boolean expectingComma = false;
-        while (!tokens.get(position).equals("]")) {
-            if (expectingComma) {
-                if (!tokens.get(position).equals(",")) {
-                    throw new JSONException("Expected , in array");
-                }
-                position++;
-                if (tokens.get(position).equals("]")) {
-                    throw new JSONException("Trailing comma in array");
+    private Object lazyValue(JSONToken token, JSONSource source) {
+        switch (token) {
+            case START_OBJECT:
+            case START_ARRAY:
+                int start = reader.offset() - 1;
+                if (lazyIndex == null) {
+                    int[] index = reader.skipChildrenIndexed();
+                    return new LazyValue.Span(source, start, reader.offset(), reader.keyCache(), index, 0);
                 }
+                int entry = lazyEntry;
+                lazyEntry = lazyIndex[2 * entry + 1];
+                reader.skipContainerTo(lazyIndex[2 * entry]);
+                return new LazyValue.Span(source, start, reader.offset(), reader.keyCache(), lazyIndex, entry + 1);
+            case STRING:
+                return reader.currentString();
+            case NUMBER:
+                return reader.currentNumber();
+            case TRUE:
+                return true;
+            case FALSE:
+                return false;
+            case NULL:
+                return null;
+            default:
+                throw new JSONException("Unexpected token: " + token);
+        }
+    }
+
+    private void emitValue(JSONToken token, JSONHandler handler) {
+        for (int depth = 0; ; token = reader.nextToken()) {
+            switch (token) {
+                case START_OBJECT:
+                    handler.startObject();
+                    depth++;
+                    break;
+                case END_OBJECT:
+                    handler.endObject();
+                    depth--;
+                    break;
+                case START_ARRAY:
+                    handler.startArray();
+                    depth++;
+                    break;
+                case END_ARRAY:
+                    handler.endArray();
+                    depth--;
+                    break;
+                case FIELD_NAME:
+                    String key = reader.currentString();
+                    if (key.isEmpty())
+                        throw new JSONException("Missing key");
+                    handler.key(key);
+                    break;
+                case STRING:
+                    handler.value(stringViews ? reader.currentText() : reader.currentString());
+                    break;
+                case NUMBER:
+                    emitNumber(handler);
+                    break;
+                case TRUE:
+                    handler.value(true);
+                    break;
+                case FALSE:
+                    handler.value(false);
+                    break;
+                case NULL:
+                    handler.nullValue();
+                    break;
+                default:
+                    throw new JSONException("Unexpected token: " + token);
+            }
+            if (depth == 0) {
+                return;
             }
+        }
+    }
 
-            jsonArray.add(parseValue());
-            expectingComma = true;
+    private void emitNumber(JSONHandler handler) {
+        switch (reader.currentNumberType()) {
+            case INT:
+            case LONG:
+                handler.value(reader.currentLong());
+                break;
+            case DOUBLE:
+                handler.value(reader.currentDouble());
+                break;
+            default:
+                handler.value(reader.currentNumber());
+                break;
         }
+    }
 
-        position++; // Skip ]
-        return jsonArray;
+    public static void parse(String json, JSONHandler handler) {
+        ParserPool.apply(json, parser -> {
+            parser.parse(handler);
+            return null;
+        });
     }
 
-    private Object parseValue() {
-        String token = tokens.get(position);
+    public static void parse(byte[] json, JSONHandler handler) {
+        ParserPool.apply(json, parser -> {
+            parser.parse(handler);
+            return null;
+        });
+    }
 
-        if (token.equals("{")) {
-            return parseObject();
-        } else if (token.equals("[")) {
-            return parseArray();
-        } else if (token.startsWith("\"")) {
-            return parseString();
-        } else if (token.equals("true")) {
-            position++;
-            return true;
-        } else if (token.equals("false")) {
-            position++;
-            return false;
-        } else if (token.matches("-?\\d+(\\.\\d+)?([eE][-+]?\\d+)?")) {
-            return parseNumber();
-        } else {
-            throw new JSONException("Unexpected token: " + token);
-        }
+    public static void parse(Reader reader, JSONHandler handler) {
+        new JSONParser(reader).parse(handler);
+    }
+
+    public static void parse(InputStream in, JSONHandler handler) {
+        new JSONParser(in).parse(handler);
     }
 
-    private String parseString() {
-        String token = tokens.get(position);
-        position++;
-        if (token.length() < 2) {
-            throw new JSONException("Invalid string: " + token);
+    public static void parse(Path path, JSONHandler handler) {
+        try (JSONParser parser = new JSONParser(path)) {
+            parser.parse(handler);
         }
-        return token.substring(1, token.length() - 1);
     }
 
-    private Number parseNumber() {
-        String token = tokens.get(position);
-        position++;
+    public static JSONObject parseToJSONObject(String json) {
+        return asJSONObject(ParserPool.apply(json, JSONParser::parse));
+    }
 
-        if (token.contains(".") || token.contains("e") || token.contains("E")) {
-            return Double.parseDouble(token);
-        } else {
-            long value = Long.parseLong(token);
-            if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
-                return (int) value;
-            } else {
-                return value;
-            }
+    public static JSONObject parseToJSONObject(byte[] json) {
+        return asJSONObject(ParserPool.apply(json, JSONParser::parse));
+    }
+
+    public static JSONObject parseToJSONObject(Reader reader) {
+        return asJSONObject(new JSONParser(reader).parse());
+    }
+
+    public static JSONObject parseToJSONObject(InputStream in) {
+        return asJSONObject(new JSONParser(in).parse());
+    }
+
+    public static JSONObject parseToJSONObject(Path path) {
+        try (JSONParser parser = new JSONParser(path)) {
+            return asJSONObject(parser.parse());
         }
     }
 
-    public static JSONObject parseToJSONObject(String json) {
-        JSONParser parser = new JSONParser(json);
-        Object result = parser.parse();
-        if (result instanceof JSONObject) {
-            return (JSONObject) result;
-        } else {
-            throw new JSONException("Root element is not a JSONObject");
+    // See parseFields(Set)
+    public static JSONObject parseToJSONObject(String json, Set<String> fields) {
+        return ParserPool.apply(json, parser -> parser.parseFields(fields));
+    }
+
+    public static JSONObject parseToJSONObject(byte[] json, Set<String> fields) {
+        return ParserPool.apply(json, parser -> parser.parseFields(fields));
+    }
+
+    public static JSONObject parseToJSONObject(Reader reader, Set<String> fields) {
+        return new JSONParser(reader).parseFields(fields);
+    }
+
+    public static JSONObject parseToJSONObject(InputStream in, Set<String> fields) {
+        return new JSONParser(in).parseFields(fields);
+    }
+
+    public static JSONObject parseToJSONObject(Path path, Set<String> fields) {
+        try (JSONParser parser = new JSONParser(path)) {
+            return parser.parseFields(fields);
         }
     }
 
     public static JSONArray parseToJSONArray(String json) {
-        JSONParser parser = new JSONParser(json);
-        Object result = parser.parse();
-        if (result instanceof JSONArray) {
-            return (JSONArray) result;
-        } else {
-            throw new JSONException("Root element is not a JSONArray");
+        return asJSONArray(ParserPool.apply(json, JSONParser::parse));
+    }
+
+    public static JSONArray parseToJSONArray(byte[] json) {
+        return asJSONArray(ParserPool.apply(json, JSONParser::parse));
+    }
+
+    public static JSONArray parseToJSONArray(Reader reader) {
+        return asJSONArray(new JSONParser(reader).parse());
+    }
+
+    public static JSONArray parseToJSONArray(InputStream in) {
+        return asJSONArray(new JSONParser(in).parse());
+    }
+
+    public static JSONArray parseToJSONArray(Path path) {
+        try (JSONParser parser = new JSONParser(path)) {
+            return asJSONArray(parser.parse());
         }
     }
 
+    // Parses the elements of a large top-level array concurrently; the result keeps the original order
+    public static JSONArray parseToJSONArrayParallel(String json) {
+        return ParallelArrayParser.parse(json);
+    }
+
+    public static JSONArray parseToJSONArrayParallel(byte[] json) {
+        return ParallelArrayParser.parse(json);
+    }
+
+    // Validates the whole document up front but builds nested objects and arrays only when they are accessed
+    public static JSONObject parseToJSONObjectLazy(String json) {
+        return asJSONObject(parseLazyDocument(JSONSource.of(json)));
+    }
+
+    public static JSONObject parseToJSONObjectLazy(byte[] json) {
+        return asJSONObject(parseLazyDocument(JSONSource.of(json)));
+    }
+
+    public static JSONArray parseToJSONArrayLazy(String json) {
+        return asJSONArray(parseLazyDocument(JSONSource.of(json)));
+    }
+
+    public static JSONArray parseToJSONArrayLazy(byte[] json) {
+        return asJSONArray(parseLazyDocument(JSONSource.of(json)));
+    }
+
+    private static Object parseLazyDocument(JSONSource source) {
+        JSONParser parser = new JSONParser(source.reader(0, source.length()));
+        Object result = parser.parseLazy(source);
+        parser.reader.requireEndOfInput();
+        return result;
+    }
+
     public static Map<String, Object> parseToMap(String json) {
-        JSONParser parser = new JSONParser(json);
-        Object result = parser.parse();
+        return asJSONObject(ParserPool.apply(json, JSONParser::parse)).toMap();
+    }
+
+    public static Map<String, Object> parseToMap(byte[] json) {
+        return asJSONObject(ParserPool.apply(json, JSONParser::parse)).toMap();
+    }
+
+    public static Map<String, Object> parseToMap(Reader reader) {
+        return asJSONObject(new JSONParser(reader).parse()).toMap();
+    }
+
+    public static Map<String, Object> parseToMap(InputStream in) {
+        return asJSONObject(new JSONParser(in).parse()).toMap();
+    }
+
+    public static Map<String, Object> parseToMap(Path path) {
+        try (JSONParser parser = new JSONParser(path)) {
+            return asJSONObject(parser.parse()).toMap();
+        }
+    }
+
+    public static List<Object> parseToList(String json) {
+        return asJSONArray(ParserPool.apply(json, JSONParser::parse)).toList();
+    }
+
+    public static List<Object> parseToList(byte[] json) {
+        return asJSONArray(ParserPool.apply(json, JSONParser::parse)).toList();
+    }
+
+    public static List<Object> parseToList(Reader reader) {
+        return asJSONArray(new JSONParser(reader).parse()).toList();
+    }
+
+    public static List<Object> parseToList(InputStream in) {
+        return asJSONArray(new JSONParser(in).parse()).toList();
+    }
+
+    public static List<Object> parseToList(Path path) {
+        try (JSONParser parser = new JSONParser(path)) {
+            return asJSONArray(parser.parse()).toList();
+        }
+    }
+
+    public static List<Object> parseToListParallel(String json) {
+        return ParallelArrayParser.parse(json).toList();
+    }
+
+    public static List<Object> parseToListParallel(byte[] json) {
+        return ParallelArrayParser.parse(json).toList();
+    }
+
+    public static <T> T parseToClass(String json, Class<T> clazz) {
+        return ParserPool.apply(json, parser -> parser.parse(clazz));
+    }
+
+    public static <T> T parseToClass(byte[] json, Class<T> clazz) {
+        return ParserPool.apply(json, parser -> parser.parse(clazz));
+    }
+
+    public static <T> T parseToClass(Reader reader, Class<T> clazz) {
+        return new JSONParser(reader).parse(clazz);
+    }
+
+    public static <T> T parseToClass(InputStream in, Class<T> clazz) {
+        return new JSONParser(in).parse(clazz);
+    }
+
+    public static <T> T parseToClass(Path path, Class<T> clazz) {
+        try (JSONParser parser = new JSONParser(path)) {
+            return parser.parse(clazz);
+        }
+    }
+
+    private static JSONObject asJSONObject(Object result) {
         if (result instanceof JSONObject) {
-            return ((JSONObject) result).toMap();
+            return (JSONObject) result;
         } else {
             throw new JSONException("Root element is not a JSONObject");
         }
     }
 
-    public static List<Object> parseToList(String json) {
-        JSONParser parser = new JSONParser(json);
-        Object result = parser.parse();
+    private static JSONArray asJSONArray(Object result) {
         if (result instanceof JSONArray) {
-            return ((JSONArray) result).toList();
+            return (JSONArray) result;
         } else {
             throw new JSONException("Root element is not a JSONArray");
         }
     }
 
-    public static <T> T parseToClass(String json, Class<T> clazz) {
-        JSONParser parser = new JSONParser(json);
-        Object result = parser.parse();
-        return convertToClass(result, clazz);
-    }
-
+    // Binds an already parsed value, such as a JSONObject from parseToJSONObject, the way parseToClass does
     @SuppressWarnings("unchecked")
-    private static <T> T convertToClass(Object obj, Class<T> clazz) {
+    public static <T> T convertToClass(Object obj, Class<T> clazz) {
         if (obj == null) {
             return null;
         }
@@ -186,6 +571,10 @@ public class JSONParser {
             return (T) obj;
         }
 
+        if (obj instanceof JSONString) {
+            return convertToClass(obj.toString(), clazz);
+        }
+
         if (obj instanceof JSONObject) {
             return convertJSONObjectToClass((JSONObject) obj, clazz);
         }
@@ -198,94 +587,139 @@ public class JSONParser {
     }
 
     private static <T> T convertJSONObjectToClass(JSONObject jsonObject, Class<T> clazz) {
-        try {
-            T instance = clazz.getDeclaredConstructor().newInstance();
-
-            for (Field field : clazz.getDeclaredFields()) {
-                field.setAccessible(true);
-                Object value = jsonObject.get(field.getName());
-
+        ClassBinding binding = ClassBinding.of(clazz);
+        if (binding.isRecord()) {
+            Object[] arguments = binding.newArguments();
+            for (ClassBinding.FieldBinding field : binding.fields()) {
+                Object value = jsonObject.get(field.name);
                 if (value != null) {
-                    if (value instanceof JSONObject) {
-                        field.set(instance, convertToClass(value, field.getType()));
-                    } else if (value instanceof JSONArray) {
-                        field.set(instance, convertJSONArrayToField((JSONArray) value, field));
-                    } else {
-                        // Handle type mismatch for numbers
-                        if (field.getType() == int.class && value instanceof Long) {
-                            field.set(instance, ((Long) value).intValue());
-                        } else if (field.getType() == long.class && value instanceof Integer) {
-                            field.set(instance, ((Integer) value).longValue());
-                        } else {
-                            field.set(instance, value);
-                        }
-                    }
+                    arguments[field.index] = convertFieldValue(value, field);
                 }
             }
+            return clazz.cast(binding.newRecord(arguments));
+        }
 
-            return instance;
-        } catch (ReflectiveOperationException e) {
-            throw new JSONException("Error creating instance of " + clazz, e);
+        T instance = clazz.cast(binding.newInstance());
+        for (ClassBinding.FieldBinding field : binding.fields()) {
+            Object value = jsonObject.get(field.name);
+            if (value != null) {
+                field.set(instance, convertFieldValue(value, field));
+            }
         }
+        return instance;
     }
 
+    private static Object convertFieldValue(Object value, ClassBinding.FieldBinding field) {
+        if (value instanceof JSONObject || value instanceof JSONString) {
+            return convertToClass(value, field.type);
+        } else if (value instanceof JSONArray) {
+            return convertJSONArrayToField((JSONArray) value, field);
+        }
+        // Handle type mismatch for numbers
+        if (field.type == int.class && value instanceof Long) {
+            return ((Long) value).intValue();
+        } else if (field.type == long.class && value instanceof Integer) {
+            return ((Integer) value).longValue();
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
     private static <T> T convertJSONArrayToClass(JSONArray jsonArray, Class<T> clazz) {
         if (clazz.isArray()) {
-            Class<?> componentType = clazz.getComponentType();
-            Object array = java.lang.reflect.Array.newInstance(componentType, jsonArray.toList().size());
-            for (int i = 0; i < jsonArray.toList().size(); i++) {
-                java.lang.reflect.Array.set(array, i, convertToClass(jsonArray.get(i), componentType));
-            }
-            return (T) array;
+            return (T) convertJSONArrayToArray(jsonArray, clazz.getComponentType());
         }
 
         if (List.class.isAssignableFrom(clazz)) {
-            List<Object> list = new ArrayList<>();
-            for (Object item : jsonArray.toList()) {
-                list.add(item);
-            }
-            return (T) list;
+            return (T) new ArrayList<>(jsonArray);
         }
 
         throw new JSONException("Cannot convert JSONArray to " + clazz);
     }
 
-    private static Object convertJSONArrayToField(JSONArray jsonArray, Field field) throws ReflectiveOperationException {
-        Class<?> fieldType = field.getType();
-
-        if (fieldType.isArray()) {
-            Class<?> componentType = fieldType.getComponentType();
-            Object array = java.lang.reflect.Array.newInstance(componentType, jsonArray.toList().size());
-            for (int i = 0; i < jsonArray.toList().size(); i++) {
-                java.lang.reflect.Array.set(array, i, convertToClass(jsonArray.get(i), componentType));
+    // Numeric arrays are copied out of the JSONArray's primitive storage in bulk, converting like getInt/getLong
+    private static Object convertJSONArrayToArray(JSONArray jsonArray, Class<?> componentType) {
+        if (componentType == int.class) {
+            return jsonArray.toIntArray();
+        } else if (componentType == long.class) {
+            return jsonArray.toLongArray();
+        } else if (componentType == double.class) {
+            return jsonArray.toDoubleArray();
+        } else if (componentType == boolean.class) {
+            boolean[] array = new boolean[jsonArray.size()];
+            for (int i = 0; i < array.length; i++) {
+                if (!(jsonArray.get(i) instanceof Boolean)) {
+                    throw new JSONException("Cannot convert " + jsonArray.get(i) + " to boolean");
+                }
+                array[i] = (Boolean) jsonArray.get(i);
+            }
+            return array;
+        } else if (componentType == float.class) {
+            float[] array = new float[jsonArray.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = (float) jsonArray.getDouble(i);
+            }
+            return array;
+        } else if (componentType == short.class) {
+            short[] array = new short[jsonArray.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = (short) narrow(jsonArray, i, Short.MIN_VALUE, Short.MAX_VALUE, componentType);
+            }
+            return array;
+        } else if (componentType == byte.class) {
+            byte[] array = new byte[jsonArray.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = (byte) narrow(jsonArray, i, Byte.MIN_VALUE, Byte.MAX_VALUE, componentType);
             }
             return array;
+        } else if (componentType == char.class) {
+            char[] array = new char[jsonArray.size()];
+            for (int i = 0; i < array.length; i++) {
+                Object element = jsonArray.get(i);
+                if (!(element instanceof CharSequence) || ((CharSequence) element).length() != 1) {
+                    throw new JSONException("Cannot convert " + element + " to char");
+                }
+                array[i] = ((CharSequence) element).charAt(0);
+            }
+            return array;
+        }
+        Object[] array = (Object[]) java.lang.reflect.Array.newInstance(componentType, jsonArray.size());
+        for (int i = 0; i < array.length; i++) {
+            array[i] = convertToClass(jsonArray.get(i), componentType);
         }
+        return array;
+    }
 
-        if (Collection.class.isAssignableFrom(fieldType)) {
-            Collection<Object> collection;
-            if (List.class.isAssignableFrom(fieldType)) {
+    private static long narrow(JSONArray jsonArray, int index, long min, long max, Class<?> componentType) {
+        long value = jsonArray.getLong(index);
+        if (value < min || value > max) {
+            throw new JSONException("Cannot convert " + value + " to " + componentType);
+        }
+        return value;
+    }
+
+    private static Object convertJSONArrayToField(JSONArray jsonArray, ClassBinding.FieldBinding field) {
+        Collection<Object> collection;
+        switch (field.arrayKind) {
+            case ARRAY:
+                return convertJSONArrayToArray(jsonArray, field.elementType);
+            case LIST:
                 collection = new ArrayList<>();
-            } else if (Set.class.isAssignableFrom(fieldType)) {
+                break;
+            case SET:
                 collection = new HashSet<>();
-            } else {
-                throw new JSONException("Unsupported collection type: " + fieldType);
-            }
-
-            Type genericType = field.getGenericType();
-            if (genericType instanceof ParameterizedType) {
-                Class<?> elementType = (Class<?>) ((ParameterizedType) genericType).getActualTypeArguments()[0];
-                for (Object item : jsonArray.toList()) {
-                    collection.add(convertToClass(item, elementType));
+                break;
+            default:
+                if (Collection.class.isAssignableFrom(field.type)) {
+                    throw new JSONException("Unsupported collection type: " + field.type);
                 }
-            } else {
-                collection.addAll(jsonArray.toList());
-            }
-
-            return collection;
+                throw new JSONException("Cannot convert JSONArray to " + field.type);
         }
 
-        throw new JSONException("Cannot convert JSONArray to " + fieldType);
+        for (Object item : jsonArray) {
+            collection.add(convertToClass(item, field.elementType));
+        }
+        return collection;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,267 @@
+package com.jsonparser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+// A compiled path query evaluated while the input is read. Accepts JSON Pointer ("/payload/items/0/price", with
+// "*" as a wildcard segment) and a JSONPath subset: $, .name, ['name'], [0], .* and [*], and recursive descent
+// with "..". Subtrees that no step can match are skipped by bracket matching without being tokenized, and only
+// the matching values are built
+public final class JSONPath {
+    private static final int MAX_STEPS = 63;
+
+    private final String expression;
+    private final Step[] steps;
+    // Bit i of a state set means "this value is matched against step i"; this bit means the path matched
+    private final long matched;
+
+    private JSONPath(String expression, List<Step> steps) {
+        if (steps.size() > MAX_STEPS) {
+            throw new JSONException("Path has more than " + MAX_STEPS + " steps: " + expression);
+        }
+        this.expression = expression;
+        this.steps = steps.toArray(new Step[0]);
+        this.matched = 1L << steps.size();
+    }
+
+    public static JSONPath compile(String expression) {
+        if (expression.isEmpty() || expression.charAt(0) == '/') {
+            return new JSONPath(expression, parsePointer(expression));
+        }
+        if (expression.charAt(0) == '$') {
+            return new JSONPath(expression, parsePath(expression));
+        }
+        throw new JSONException("Invalid path: " + expression);
+    }
+
+    // The matching values in document order
+    public List<Object> evaluate(String json) {
+        return ParserPool.apply(json, this::evaluate);
+    }
+
+    public List<Object> evaluate(byte[] json) {
+        return ParserPool.apply(json, this::evaluate);
+    }
+
+    public List<Object> evaluate(JSONReader reader) {
+        return evaluate(new JSONParser(reader));
+    }
+
+    List<Object> evaluate(JSONParser parser) {
+        JSONReader reader = parser.reader();
+        List<Object> results = new ArrayList<>();
+        // State sets and element counters of the open containers that still have live states
+        long[] frameStates = new long[16];
+        int[] frameIndex = new int[16];
+        int depth = 0;
+        JSONToken token = reader.nextToken();
+        long states = 1L;
+        while (true) {
+            if ((states & matched) != 0) {
+                collect(parser.buildValue(token), states, results);
+            } else if (token == JSONToken.START_OBJECT || token == JSONToken.START_ARRAY) {
+                if (states == 0) {
+                    reader.skipContainer();
+                } else {
+                    if (depth == frameStates.length) {
+                        frameStates = Arrays.copyOf(frameStates, depth * 2);
+                        frameIndex = Arrays.copyOf(frameIndex, depth * 2);
+                    }
+                    frameStates[depth] = states;
+                    frameIndex[depth] = -1;
+                    depth++;
+                }
+            } else if (token == JSONToken.END_DOCUMENT) {
+                throw new JSONException("Unexpected end of input");
+            }
+            // Move on to the next value inside a container that is still open
+            while (true) {
+                if (depth == 0) {
+                    reader.requireEndOfInput();
+                    return results;
+                }
+                token = reader.nextToken();
+                if (token == JSONToken.END_OBJECT || token == JSONToken.END_ARRAY) {
+                    depth--;
+                } else if (token == JSONToken.FIELD_NAME) {
+                    states = advance(frameStates[depth - 1], reader.currentString(), -1);
+                    token = reader.nextToken();
+                    break;
+                } else {
+                    states = advance(frameStates[depth - 1], null, ++frameIndex[depth - 1]);
+                    break;
+                }
+            }
+        }
+    }
+
+    // A matched value may hold further matches when the path has recursive descent, e.g. $..a over {"a":{"a":1}}
+    private void collect(Object value, long states, List<Object> results) {
+        if ((states & matched) != 0) {
+            results.add(value);
+        }
+        long rest = states & ~matched;
+        if (rest == 0) {
+            return;
+        }
+        if (value instanceof JSONObject) {
+            for (Map.Entry<String, Object> entry : ((JSONObject) value).entrySet()) {
+                collect(entry.getValue(), advance(rest, entry.getKey(), -1), results);
+            }
+        } else if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            for (int i = 0; i < array.size(); i++) {
+                collect(array.get(i), advance(rest, null, i), results);
+            }
+        }
+    }
+
+    // The states of a child reached by key (in an object) or by index (in an array)
+    private long advance(long states, String key, int index) {
+        long next = 0;
+        for (long rest = states & ~matched; rest != 0; rest &= rest - 1) {
+            int i = Long.numberOfTrailingZeros(rest);
+            Step step = steps[i];
+            if (step.descendant) {
+                next |= 1L << i;
+            }
+            if (step.matches(key, index)) {
+                next |= 1L << (i + 1);
+            }
+        }
+        return next;
+    }
+
+    private static List<Step> parsePointer(String pointer) {
+        List<Step> steps = new ArrayList<>();
+        if (pointer.isEmpty()) {
+            return steps;
+        }
+        for (String segment : pointer.substring(1).split("/", -1)) {
+            if (segment.equals("*")) {
+                steps.add(new Step(null, -1, false));
+            } else {
+                String name = segment.replace("~1", "/").replace("~0", "~");
+                steps.add(new Step(name, arrayIndex(name), false));
+            }
+        }
+        return steps;
+    }
+
+    private static List<Step> parsePath(String path) {
+        List<Step> steps = new ArrayList<>();
+        int pos = 1;
+        int length = path.length();
+        while (pos < length) {
+            boolean descendant = false;
+            if (path.charAt(pos) == '.') {
+                pos++;
+                if (pos < length && path.charAt(pos) == '.') {
+                    descendant = true;
+                    pos++;
+                }
+            } else if (path.charAt(pos) != '[') {
+                throw new JSONException("Invalid path: " + path);
+            }
+            if (pos < length && path.charAt(pos) == '[') {
+                pos = parseBracket(path, pos + 1, descendant, steps);
+            } else {
+                int start = pos;
+                while (pos < length && path.charAt(pos) != '.' && path.charAt(pos) != '[') {
+                    pos++;
+                }
+                String name = path.substring(start, pos);
+                if (name.isEmpty()) {
+                    throw new JSONException("Invalid path: " + path);
+                }
+                steps.add(name.equals("*") ? new Step(null, -1, descendant) : new Step(name, -1, descendant));
+            }
+        }
+        return steps;
+    }
+
+    // Parses the selector after '[' and returns the position after the closing ']'
+    private static int parseBracket(String path, int pos, boolean descendant, List<Step> steps) {
+        int length = path.length();
+        if (pos == length) {
+            throw new JSONException("Invalid path: " + path);
+        }
+        char c = path.charAt(pos);
+        if (c == '*') {
+            steps.add(new Step(null, -1, descendant));
+            pos++;
+        } else if (c == '\'' || c == '"') {
+            StringBuilder name = new StringBuilder();
+            pos++;
+            while (pos < length && path.charAt(pos) != c) {
+                if (path.charAt(pos) == '\\' && pos + 1 < length) {
+                    pos++;
+                }
+                name.append(path.charAt(pos++));
+            }
+            if (pos == length) {
+                throw new JSONException("Unterminated name in path: " + path);
+            }
+            steps.add(new Step(name.toString(), -1, descendant));
+            pos++;
+        } else {
+            int start = pos;
+            while (pos < length && path.charAt(pos) != ']') {
+                pos++;
+            }
+            int index = arrayIndex(path.substring(start, pos));
+            if (index < 0) {
+                throw new JSONException("Invalid index in path: " + path);
+            }
+            steps.add(new Step(null, index, descendant));
+        }
+        if (pos == length || path.charAt(pos) != ']') {
+            throw new JSONException("Missing ] in path: " + path);
+        }
+        return pos + 1;
+    }
+
+    // -1 unless the text is a non-negative array index without leading zeros
+    private static int arrayIndex(String text) {
+        if (text.isEmpty() || text.length() > 10 || (text.length() > 1 && text.charAt(0) == '0')) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value <= Integer.MAX_VALUE ? (int) value : -1;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    // Selects children by name, by index, or (with neither) all of them. A JSON Pointer segment such as "0"
+    // carries both, since it names an array element or an object member depending on where it lands
+    private static final class Step {
+        final String name;
+        final int index;
+        final boolean descendant;
+
+        Step(String name, int index, boolean descendant) {
+            this.name = name;
+            this.index = index;
+            this.descendant = descendant;
+        }
+
+        boolean matches(String key, int position) {
+            if (name == null && index < 0) {
+                return true;
+            }
+            return key != null ? key.equals(name) : position == index;
+        }
+    }
+}
@@ -0,0 +1,789 @@
+package com.jsonparser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+public class JSONReader implements Closeable {
+    public enum NumberType {
+        INT, LONG, DOUBLE, BIG_INTEGER, BIG_DECIMAL
+    }
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int DANGLING_NAME = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int MAX_EXPONENT = 100_000;
+    private static final int MAX_EXACT_DOUBLE_DIGITS = 15;
+    private static final long MAX_EXACT_DOUBLE_SIGNIFICAND = 1L << 53;
+    private static final int MAX_EXACT_POWER_OF_TEN = 22;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private Reader source;
+    private char[] buffer;
+    // Set while the buffer belongs to the caller or backs a JSONString view, so reset() must not overwrite it
+    private boolean bufferShared;
+    protected int position;
+    protected int limit;
+    protected int tokenStart = -1;
+
+    private int[] stack = new int[32];
+    private int stackSize;
+
+    private JSONToken token;
+    private String currentString;
+    private int stringStart;
+    private int stringEnd;
+    private NumberType numberType;
+    private long longValue;
+    private double doubleValue;
+    private Number bigValue;
+    protected final StringBuilder builder = new StringBuilder();
+    private boolean exactNumbers;
+    // Created on the first key unless one is passed in, since short-lived readers usually get a shared cache
+    private KeyCache keyCache;
+    private boolean cacheKeys = true;
+    // Set while a container is skipped: keys are only checked for emptiness, not canonicalized
+    private boolean skippingKeys;
+
+    protected JSONReader() {
+        this.source = null;
+        this.stack[stackSize++] = EMPTY_DOCUMENT;
+    }
+
+    public JSONReader(String json) {
+        this.source = null;
+        this.buffer = json.toCharArray();
+        this.limit = buffer.length;
+        this.stack[stackSize++] = EMPTY_DOCUMENT;
+    }
+
+    public JSONReader(char[] json, int offset, int length) {
+        this.source = null;
+        this.buffer = json;
+        this.bufferShared = true;
+        this.position = offset;
+        this.limit = offset + length;
+        this.stack[stackSize++] = EMPTY_DOCUMENT;
+    }
+
+    public JSONReader(Reader source) {
+        this.source = source;
+        this.buffer = new char[BUFFER_SIZE];
+        this.stack[stackSize++] = EMPTY_DOCUMENT;
+    }
+
+    // Points this reader at new input, keeping its buffer, container stack, key cache and options
+    public void reset(String json) {
+        int length = json.length();
+        if (buffer == null || buffer.length < length || bufferShared) {
+            buffer = new char[length];
+            bufferShared = false;
+        }
+        json.getChars(0, length, buffer, 0);
+        source = null;
+        position = 0;
+        limit = length;
+        restart();
+    }
+
+    public void reset(char[] json, int offset, int length) {
+        source = null;
+        buffer = json;
+        bufferShared = true;
+        position = offset;
+        limit = offset + length;
+        restart();
+    }
+
+    protected void restart() {
+        tokenStart = -1;
+        stackSize = 0;
+        stack[stackSize++] = EMPTY_DOCUMENT;
+        token = null;
+        currentString = null;
+        numberType = null;
+        bigValue = null;
+    }
+
+    public JSONToken nextToken() {
+        int scope = stack[stackSize - 1];
+        if (scope == NONEMPTY_DOCUMENT) {
+            return token = JSONToken.END_DOCUMENT;
+        }
+
+        int c = nextNonWhitespace();
+        if (c == -1 && scope != EMPTY_DOCUMENT) {
+            throw new JSONException("Unexpected end of input");
+        }
+
+        switch (scope) {
+            case EMPTY_OBJECT:
+                if (c == '}') {
+                    stackSize--;
+                    return token = JSONToken.END_OBJECT;
+                }
+                return readName(c);
+            case NONEMPTY_OBJECT:
+                if (c == '}') {
+                    stackSize--;
+                    return token = JSONToken.END_OBJECT;
+                }
+                if (c != ',') {
+                    throw new JSONException("Expected ,");
+                }
+                c = nextNonWhitespace();
+                if (c == '}') {
+                    throw new JSONException("Trailing comma in object");
+                }
+                return readName(c);
+            case DANGLING_NAME:
+                if (c != ':') {
+                    throw new JSONException("Expected :");
+                }
+                stack[stackSize - 1] = NONEMPTY_OBJECT;
+                return readValue(nextNonWhitespace());
+            case EMPTY_ARRAY:
+                if (c == ']') {
+                    stackSize--;
+                    return token = JSONToken.END_ARRAY;
+                }
+                stack[stackSize - 1] = NONEMPTY_ARRAY;
+                return readValue(c);
+            case NONEMPTY_ARRAY:
+                if (c == ']') {
+                    stackSize--;
+                    return token = JSONToken.END_ARRAY;
+                }
+                if (c != ',') {
+                    throw new JSONException("Expected , in array");
+                }
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    throw new JSONException("Trailing comma in array");
+                }
+                return readValue(c);
+            default: // EMPTY_DOCUMENT
+                if (c == -1) {
+                    return token = JSONToken.END_DOCUMENT;
+                }
+                stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+                return readValue(c);
+        }
+    }
+
+    // Returns BigInteger/BigDecimal instead of failing on long overflow or rounding to double
+    public void setExactNumbers(boolean exactNumbers) {
+        this.exactNumbers = exactNumbers;
+    }
+
+    public boolean isExactNumbers() {
+        return exactNumbers;
+    }
+
+    // Object keys are canonicalized through the cache; pass a shared cache to reuse keys across readers, or null to disable
+    public void setKeyCache(KeyCache keyCache) {
+        this.keyCache = keyCache;
+        this.cacheKeys = keyCache != null;
+    }
+
+    public JSONToken currentToken() {
+        return token;
+    }
+
+    public String currentString() {
+        if (token != JSONToken.STRING && token != JSONToken.FIELD_NAME) {
+            throw new JSONException("Current token is not a string: " + token);
+        }
+        if (currentString == null) {
+            currentString = decodeString();
+        }
+        return currentString;
+    }
+
+    // A view over the input instead of a copy when the input is held in memory and the string has no escapes.
+    // Views stay valid after the reader moves on, as long as the input array is not modified
+    public CharSequence currentText() {
+        if (token != JSONToken.STRING && token != JSONToken.FIELD_NAME) {
+            throw new JSONException("Current token is not a string: " + token);
+        }
+        if (currentString == null) {
+            CharSequence view = textView();
+            if (view != null) {
+                return view;
+            }
+        }
+        return currentString();
+    }
+
+    public Number currentNumber() {
+        switch (currentNumberType()) {
+            case INT:
+                return (int) longValue;
+            case LONG:
+                return longValue;
+            case DOUBLE:
+                return doubleValue;
+            default:
+                return bigValue;
+        }
+    }
+
+    public NumberType currentNumberType() {
+        if (token != JSONToken.NUMBER) {
+            throw new JSONException("Current token is not a number: " + token);
+        }
+        return numberType;
+    }
+
+    // Reads INT and LONG numbers without boxing
+    public long currentLong() {
+        NumberType type = currentNumberType();
+        if (type != NumberType.INT && type != NumberType.LONG) {
+            throw new JSONException("Current number is not a long: " + currentNumber());
+        }
+        return longValue;
+    }
+
+    // Reads any number except BIG_INTEGER/BIG_DECIMAL as a double without boxing
+    public double currentDouble() {
+        switch (currentNumberType()) {
+            case DOUBLE:
+                return doubleValue;
+            case INT:
+            case LONG:
+                return longValue;
+            default:
+                return bigValue.doubleValue();
+        }
+    }
+
+    int offset() {
+        return position;
+    }
+
+    // Null when caching is disabled
+    KeyCache keyCache() {
+        if (keyCache == null && cacheKeys) {
+            keyCache = new KeyCache();
+        }
+        return keyCache;
+    }
+
+    // Consumes the rest of the object or array whose start token was just read, with the same checks as a full
+    // parse, including the parser's rule against empty keys
+    void skipChildren() {
+        int depth = 1;
+        skippingKeys = true;
+        try {
+            while (depth > 0) {
+                switch (nextToken()) {
+                    case START_OBJECT:
+                    case START_ARRAY:
+                        depth++;
+                        break;
+                    case END_OBJECT:
+                    case END_ARRAY:
+                        depth--;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } finally {
+            skippingKeys = false;
+        }
+    }
+
+    // Like skipChildren(), but also records every nested object and array in the order they open, as a pair of ints:
+    // the offset just past its closing bracket and the entry that follows its own nested containers. With it the
+    // containers can be built later and stepped over with skipContainerTo instead of being scanned again
+    int[] skipChildrenIndexed() {
+        int[] index = new int[16];
+        int size = 0;
+        int[] open = new int[8];
+        int depth = 0;
+        skippingKeys = true;
+        try {
+            while (true) {
+                switch (nextToken()) {
+                    case START_OBJECT:
+                    case START_ARRAY:
+                        if (2 * size == index.length) {
+                            index = Arrays.copyOf(index, index.length * 2);
+                        }
+                        if (depth == open.length) {
+                            open = Arrays.copyOf(open, depth * 2);
+                        }
+                        open[depth++] = size++;
+                        break;
+                    case END_OBJECT:
+                    case END_ARRAY:
+                        if (depth == 0) {
+                            return Arrays.copyOf(index, 2 * size);
+                        }
+                        int entry = open[--depth];
+                        index[2 * entry] = position;
+                        index[2 * entry + 1] = size;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } finally {
+            skippingKeys = false;
+        }
+    }
+
+    // Moves past the container just opened, whose end offset was recorded by skipChildrenIndexed over the same input
+    void skipContainerTo(int end) {
+        boolean object = stack[stackSize - 1] == EMPTY_OBJECT;
+        position = end;
+        stackSize--;
+        token = object ? JSONToken.END_OBJECT : JSONToken.END_ARRAY;
+    }
+
+    // Like skipChildren(), but only matches brackets and quotes instead of tokenizing, so nothing inside is
+    // decoded or validated
+    void skipContainer() {
+        boolean object = stack[stackSize - 1] == EMPTY_OBJECT;
+        skipToContainerEnd();
+        stackSize--;
+        token = object ? JSONToken.END_OBJECT : JSONToken.END_ARRAY;
+    }
+
+    // Moves past the bracket that closes the container just opened
+    protected void skipToContainerEnd() {
+        int depth = 1;
+        while (depth > 0) {
+            char c = nextChar();
+            if (c == '"') {
+                while ((c = nextChar()) != '"') {
+                    if (c == '\\') {
+                        nextChar();
+                    }
+                }
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+        }
+    }
+
+    // Rejects anything but whitespace after the root value
+    void requireEndOfInput() {
+        int c = nextNonWhitespace();
+        if (c != -1) {
+            throw new JSONException("Unexpected token: " + (char) c);
+        }
+    }
+
+    // Skips the next value, including all of its children when it is an object or array.
+    public void skipValue() {
+        int depth = 0;
+        do {
+            switch (nextToken()) {
+                case START_OBJECT:
+                case START_ARRAY:
+                    depth++;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    if (depth == 0) {
+                        throw new JSONException("No value to skip");
+                    }
+                    depth--;
+                    break;
+                case END_DOCUMENT:
+                    throw new JSONException("No value to skip");
+                default:
+                    break;
+            }
+        } while (depth > 0);
+    }
+
+    private JSONToken readName(int c) {
+        if (c != '"') {
+            throw new JSONException("Missing key");
+        }
+        if (skippingKeys) {
+            if (peek() == '"') {
+                throw new JSONException("Missing key");
+            }
+            currentString = readString();
+        } else {
+            currentString = cacheKeys ? readKey() : readString();
+        }
+        stack[stackSize - 1] = DANGLING_NAME;
+        return token = JSONToken.FIELD_NAME;
+    }
+
+    private JSONToken readValue(int c) {
+        switch (c) {
+            case '{':
+                push(EMPTY_OBJECT);
+                return token = JSONToken.START_OBJECT;
+            case '[':
+                push(EMPTY_ARRAY);
+                return token = JSONToken.START_ARRAY;
+            case '"':
+                currentString = readString();
+                return token = JSONToken.STRING;
+            case 't':
+                readLiteral("true");
+                return token = JSONToken.TRUE;
+            case 'f':
+                readLiteral("false");
+                return token = JSONToken.FALSE;
+            case 'n':
+                readLiteral("null");
+                return token = JSONToken.NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    readNumber(c);
+                    return token = JSONToken.NUMBER;
+                }
+                throw new JSONException("Unexpected token: " + (c == -1 ? "end of input" : String.valueOf((char) c)));
+        }
+    }
+
+    private void push(int scope) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = scope;
+    }
+
+    @Override
+    public void close() {
+        if (source != null) {
+            try {
+                source.close();
+            } catch (IOException e) {
+                throw new JSONException("Error closing input", e);
+            }
+        }
+    }
+
+    // Refills the buffer, keeping everything from tokenStart (or position) onwards
+    protected boolean fill() {
+        if (source == null) {
+            return false;
+        }
+        int keep = tokenStart >= 0 ? tokenStart : position;
+        if (keep > 0) {
+            System.arraycopy(buffer, keep, buffer, 0, limit - keep);
+            limit -= keep;
+            position -= keep;
+            if (tokenStart >= 0) {
+                tokenStart = 0;
+            }
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        try {
+            int read;
+            do {
+                read = source.read(buffer, limit, buffer.length - limit);
+            } while (read == 0);
+            if (read < 0) {
+                return false;
+            }
+            limit += read;
+            return true;
+        } catch (IOException e) {
+            throw new JSONException("Error reading input", e);
+        }
+    }
+
+    protected int nextNonWhitespace() {
+        while (position < limit || fill()) {
+            char c = buffer[position++];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    protected char nextChar() {
+        if (position == limit && !fill()) {
+            throw new JSONException("Unexpected end of input");
+        }
+        return buffer[position++];
+    }
+
+    // Returns null when decoding is deferred until currentString() asks for it
+    protected String readString() {
+        int start = position;
+        boolean escaped = false;
+        while (true) {
+            int end = position;
+            while (end < limit && buffer[end] != '"' && buffer[end] != '\\') {
+                end++;
+            }
+            if (end < limit && buffer[end] == '"' && !escaped) {
+                position = end + 1;
+                if (source == null) {
+                    stringStart = start;
+                    stringEnd = end;
+                    return null;
+                }
+                return new String(buffer, start, end - start);
+            }
+            if (!escaped) {
+                builder.setLength(0);
+                escaped = true;
+            }
+            builder.append(buffer, start, end - start);
+            position = end;
+            if (end == limit) {
+                if (!fill()) {
+                    throw new JSONException("Unclosed quote");
+                }
+            } else if (buffer[position++] == '"') {
+                return builder.toString();
+            } else {
+                builder.append(readEscape());
+            }
+            start = position;
+        }
+    }
+
+    // Hashes the key while looking for the closing quote; escaped or split keys go through readString()
+    protected String readKey() {
+        int hash = 0;
+        for (int end = position; end < limit; end++) {
+            char c = buffer[end];
+            if (c == '"') {
+                int start = position;
+                position = end + 1;
+                return keyCache().lookup(buffer, start, end - start, hash);
+            }
+            if (c == '\\') {
+                break;
+            }
+            hash = 31 * hash + c;
+        }
+        return readString();
+    }
+
+    // Strings of an in-memory input without escapes are only copied when asked for
+    protected String decodeString() {
+        return new String(buffer, stringStart, stringEnd - stringStart);
+    }
+
+    protected CharSequence textView() {
+        if (source != null) {
+            return null;
+        }
+        bufferShared = true;
+        return new JSONString(buffer, stringStart, stringEnd);
+    }
+
+    private char readEscape() {
+        char escaped = nextChar();
+        if (escaped != 'u') {
+            return unescape(escaped);
+        }
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(nextChar(), 16);
+            if (digit < 0) {
+                throw new JSONException("Invalid unicode escape");
+            }
+            value = (value << 4) | digit;
+        }
+        return (char) value;
+    }
+
+    static char unescape(char escaped) {
+        switch (escaped) {
+            case '"':
+            case '\\':
+            case '/':
+                return escaped;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            default:
+                throw new JSONException("Invalid escape sequence: \\" + escaped);
+        }
+    }
+
+    private void readNumber(int c) {
+        tokenStart = position - 1;
+        boolean negative = c == '-';
+        if (negative) {
+            c = peek();
+            if (!isDigit(c)) {
+                throw invalidNumber();
+            }
+            position++;
+        }
+
+        long significand = c - '0';
+        int significantDigits = significand == 0 ? 0 : 1;
+        boolean overflow = false;
+        while (isDigit(c = peek())) {
+            position++;
+            if (canAppendDigit(significand, c)) {
+                significand = significand * 10 + (c - '0');
+                if (significand != 0) {
+                    significantDigits++;
+                }
+            } else {
+                overflow = true;
+            }
+        }
+
+        boolean integral = true;
+        int scale = 0;
+        if (c == '.') {
+            integral = false;
+            position++;
+            if (!isDigit(peek())) {
+                throw invalidNumber();
+            }
+            while (isDigit(c = peek())) {
+                position++;
+                if (!overflow && canAppendDigit(significand, c)) {
+                    significand = significand * 10 + (c - '0');
+                    if (significand != 0) {
+                        significantDigits++;
+                    }
+                    scale++;
+                } else {
+                    overflow = true;
+                }
+            }
+        }
+
+        int exponent = 0;
+        if (c == 'e' || c == 'E') {
+            integral = false;
+            position++;
+            c = peek();
+            boolean negativeExponent = c == '-';
+            if (c == '+' || c == '-') {
+                position++;
+            }
+            if (!isDigit(peek())) {
+                throw invalidNumber();
+            }
+            while (isDigit(c = peek())) {
+                position++;
+                if (exponent < MAX_EXPONENT) {
+                    exponent = exponent * 10 + (c - '0');
+                }
+            }
+            if (negativeExponent) {
+                exponent = -exponent;
+            }
+        }
+
+        int power = exponent - scale;
+        boolean fastDouble = !overflow && significand <= MAX_EXACT_DOUBLE_SIGNIFICAND
+                && power >= -MAX_EXACT_POWER_OF_TEN && power <= MAX_EXACT_POWER_OF_TEN;
+        boolean exactDecimal = exactNumbers && significantDigits > MAX_EXACT_DOUBLE_DIGITS;
+        String number = overflow || (!integral && (!fastDouble || exactDecimal)) ? tokenText() : null;
+        tokenStart = -1;
+        if (integral) {
+            if (!overflow) {
+                longValue = negative ? -significand : significand;
+                numberType = longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE
+                        ? NumberType.INT : NumberType.LONG;
+                return;
+            }
+            if (exactNumbers) {
+                setBigValue(NumberType.BIG_INTEGER, new BigInteger(number));
+                return;
+            }
+            try {
+                longValue = Long.parseLong(number);
+                numberType = NumberType.LONG;
+                return;
+            } catch (NumberFormatException e) {
+                throw new JSONException("Number out of range: " + number, e);
+            }
+        }
+
+        if (exactNumbers && (overflow || exactDecimal)) {
+            setBigValue(NumberType.BIG_DECIMAL, new BigDecimal(number));
+            return;
+        }
+        double value = fastDouble ? toDouble(negative, significand, power) : Double.parseDouble(number);
+        if (exactNumbers && (Double.isInfinite(value) || (value == 0 && significand != 0))) {
+            setBigValue(NumberType.BIG_DECIMAL, new BigDecimal(number));
+            return;
+        }
+        doubleValue = value;
+        numberType = NumberType.DOUBLE;
+    }
+
+    private void setBigValue(NumberType type, Number value) {
+        bigValue = value;
+        numberType = type;
+    }
+
+    // Exact because both the significand and the power of ten are exactly representable as doubles
+    private static double toDouble(boolean negative, long significand, int power) {
+        double value = power < 0
+                ? significand / POWERS_OF_TEN[-power]
+                : significand * POWERS_OF_TEN[power];
+        return negative ? -value : value;
+    }
+
+    private static boolean canAppendDigit(long significand, int digit) {
+        return significand < Long.MAX_VALUE / 10
+                || (significand == Long.MAX_VALUE / 10 && digit - '0' <= Long.MAX_VALUE % 10);
+    }
+
+    protected String tokenText() {
+        return new String(buffer, tokenStart, position - tokenStart);
+    }
+
+    private JSONException invalidNumber() {
+        int c = peek();
+        return new JSONException("Invalid number: " + tokenText() + (c == -1 ? "" : String.valueOf((char) c)));
+    }
+
+    protected int peek() {
+        return position < limit || fill() ? buffer[position] : -1;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private void readLiteral(String literal) {
+        for (int i = 1; i < literal.length(); i++) {
+            int c = peek();
+            if (c != literal.charAt(i)) {
+                throw new JSONException("Invalid literal: " + literal.substring(0, i) + (c == -1 ? "" : String.valueOf((char) c)));
+            }
+            position++;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.jsonparser;
 
 import java.lang.reflect.Array;
-import java.lang.reflect.Field;
 import java.util.Collection;
 import java.util.Map;
 import java.util.HashSet;
@@ -13,6 +12,7 @@ public class JSONSerializer {
         return serialize(obj, new HashSet<>());
     }
 
+    @SuppressWarnings("unchecked")
     private static String serialize(Object obj, Set<Object> visited) {
         if (obj == null) {
             return "null";
@@ -23,8 +23,8 @@ public class JSONSerializer {
         }
         visited.add(obj);
 
-        if (obj instanceof String) {
-            return "\"" + escapeString((String) obj) + "\"";
+        if (obj instanceof CharSequence) {
+            return "\"" + escapeString(obj.toString()) + "\"";
         }
         if (obj instanceof Number || obj instanceof Boolean) {
             return obj.toString();
@@ -39,6 +39,13 @@ public class JSONSerializer {
             return serializeMap((Map<?, ?>) obj, visited);
         }
 
+        TypeCodec<Object> codec = TypeCodecs.find((Class<Object>) obj.getClass());
+        if (codec != null) {
+            StringBuilder sb = new StringBuilder();
+            codec.write(obj, sb, (value, out) -> out.append(serialize(value, new HashSet<>(visited))));
+            return sb.toString();
+        }
+
         return serializeObject(obj, visited);
     }
 
@@ -46,22 +53,16 @@ public class JSONSerializer {
         StringBuilder sb = new StringBuilder();
         sb.append("{");
 
-        Field[] fields = obj.getClass().getDeclaredFields();
         boolean first = true;
 
-        for (Field field : fields) {
-            field.setAccessible(true);
+        for (ClassBinding.FieldBinding field : ClassBinding.of(obj.getClass()).fields()) {
             if (first) {
                 first = false;
             } else {
                 sb.append(",");
             }
-            sb.append("\"").append(field.getName()).append("\":");
-            try {
-                sb.append(serialize(field.get(obj), new HashSet<>(visited)));
-            } catch (IllegalAccessException e) {
-                throw new JSONException("Error accessing field: " + field.getName(), e);
-            }
+            sb.append("\"").append(field.name).append("\":");
+            sb.append(serialize(field.get(obj), new HashSet<>(visited)));
         }
 
         sb.append("}");
@@ -0,0 +1,64 @@
+package com.jsonparser;
+
+// A complete document held in memory, so readers can be opened over any range of it
+abstract class JSONSource {
+    abstract int length();
+
+    abstract int at(int index);
+
+    abstract JSONReader reader(int start, int end);
+
+    static JSONSource of(byte[] json) {
+        return new ByteSource(json);
+    }
+
+    static JSONSource of(String json) {
+        return new CharSource(json.toCharArray());
+    }
+
+    private static final class ByteSource extends JSONSource {
+        private final byte[] json;
+
+        ByteSource(byte[] json) {
+            this.json = json;
+        }
+
+        @Override
+        int length() {
+            return json.length;
+        }
+
+        @Override
+        int at(int index) {
+            return json[index];
+        }
+
+        @Override
+        JSONReader reader(int start, int end) {
+            return new UTF8JSONReader(json, start, end - start);
+        }
+    }
+
+    private static final class CharSource extends JSONSource {
+        private final char[] json;
+
+        CharSource(char[] json) {
+            this.json = json;
+        }
+
+        @Override
+        int length() {
+            return json.length;
+        }
+
+        @Override
+        int at(int index) {
+            return json[index];
+        }
+
+        @Override
+        JSONReader reader(int start, int end) {
+            return new JSONReader(json, start, end - start);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.jsonparser;
+
+import java.nio.charset.StandardCharsets;
+
+// A string value that still points into the parsed input; nothing is copied until toString() is called.
+// Non-ASCII UTF-8 is decoded on first access to its characters
+public final class JSONString implements CharSequence {
+    private final char[] chars;
+    private final byte[] bytes;
+    private final int start;
+    private final int end;
+    private final boolean ascii;
+    private String decoded;
+
+    JSONString(char[] chars, int start, int end) {
+        this.chars = chars;
+        this.bytes = null;
+        this.start = start;
+        this.end = end;
+        this.ascii = false;
+    }
+
+    JSONString(byte[] bytes, int start, int end, boolean ascii) {
+        this.chars = null;
+        this.bytes = bytes;
+        this.start = start;
+        this.end = end;
+        this.ascii = ascii;
+    }
+
+    @Override
+    public int length() {
+        return chars != null || ascii ? end - start : toString().length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length());
+        }
+        if (chars != null) {
+            return chars[start + index];
+        }
+        return ascii ? (char) bytes[start + index] : toString().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        if (from < 0 || to > length() || from > to) {
+            throw new IndexOutOfBoundsException("Range: " + from + ".." + to + ", Length: " + length());
+        }
+        if (chars != null) {
+            return new JSONString(chars, start + from, start + to);
+        }
+        return ascii ? new JSONString(bytes, start + from, start + to, true) : toString().substring(from, to);
+    }
+
+    @Override
+    public String toString() {
+        String result = decoded;
+        if (result == null) {
+            if (chars != null) {
+                result = new String(chars, start, end - start);
+            } else {
+                result = new String(bytes, start, end - start, ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+            }
+            decoded = result;
+        }
+        return result;
+    }
+
+    // Equal to another JSONString with the same characters; compare with a String through contentEquals or toString()
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof JSONString && CharSequence.compare(this, (JSONString) o) == 0;
+    }
+
+    // Same value as the hash code of the equivalent String
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0, length = length(); i < length; i++) {
+            hash = 31 * hash + charAt(i);
+        }
+        return hash;
+    }
+}
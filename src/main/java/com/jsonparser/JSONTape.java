@@ -0,0 +1,630 @@
+package com.jsonparser;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// A parsed document stored as a flat tape, so a large cached document is two primitive arrays rather than millions
+// of heap objects, and the collector has nothing inside it to trace. Every value is one 64-bit entry: the type in the
+// top byte, a payload below it. Containers record where they end (and how many children they have), so siblings
+// are skipped in O(1); numbers take a second entry holding the raw 64 bits, except the BigInteger and BigDecimal
+// values of exact number mode, which keep their decimal text; strings point into a separate UTF-8 array, and keys
+// also carry 24 bits of their hash so that lookups rarely compare bytes.
+// The tape is read-only once built and safe to share between threads
+public final class JSONTape {
+    private static final int OBJECT = '{';
+    private static final int END_OBJECT = '}';
+    private static final int ARRAY = '[';
+    private static final int END_ARRAY = ']';
+    private static final int STRING = '"';
+    private static final int LONG = 'l';
+    private static final int DOUBLE = 'd';
+    private static final int BIG_INTEGER = 'i';
+    private static final int BIG_DECIMAL = 'm';
+    private static final int TRUE = 't';
+    private static final int FALSE = 'f';
+    private static final int NULL = 'n';
+
+    private static final int TYPE_SHIFT = 56;
+    private static final long PAYLOAD_MASK = (1L << TYPE_SHIFT) - 1;
+    private static final int COUNT_SHIFT = 32;
+    private static final int MAX_COUNT = (1 << 24) - 1;
+    private static final int HASH_SHIFT = 32;
+    private static final int HASH_MASK = (1 << 24) - 1;
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private final long[] tape;
+    private final byte[] strings;
+
+    private JSONTape(long[] tape, byte[] strings) {
+        this.tape = tape;
+        this.strings = strings;
+    }
+
+    public static JSONTape parse(String json) {
+        return build(new JSONParser(json), json.length());
+    }
+
+    public static JSONTape parse(byte[] json) {
+        return build(new JSONParser(json), json.length);
+    }
+
+    public static JSONTape parse(Path path) {
+        long size;
+        try {
+            size = Files.size(path);
+        } catch (IOException e) {
+            throw new JSONException("Error opening " + path, e);
+        }
+        try (JSONParser parser = new JSONParser(path)) {
+            return build(parser, size);
+        }
+    }
+
+    // Uses the parser's options, so a parser in exact number mode keeps BigInteger and BigDecimal values exact
+    public static JSONTape parse(JSONParser parser) {
+        return build(parser, 0);
+    }
+
+    private static JSONTape build(JSONParser parser, long inputLength) {
+        TapeBuilder builder = new TapeBuilder(inputLength);
+        parser.parse(builder);
+        return builder.result();
+    }
+
+    public Cursor root() {
+        return new Cursor(0);
+    }
+
+    // Bytes held by the tape's two arrays
+    public long sizeInBytes() {
+        return (long) tape.length * Long.BYTES + strings.length;
+    }
+
+    private long entry(int index) {
+        return tape[index];
+    }
+
+    private static int typeOf(long entry) {
+        return (int) (entry >>> TYPE_SHIFT);
+    }
+
+    // Index of the entry that follows the value starting at index
+    private int next(int index) {
+        long entry = entry(index);
+        switch (typeOf(entry)) {
+            case OBJECT:
+            case ARRAY:
+                return (int) entry + 1;
+            case LONG:
+            case DOUBLE:
+                return index + 2;
+            default:
+                return index + 1;
+        }
+    }
+
+    private String string(long entry) {
+        int offset = (int) entry;
+        return new String(strings, offset + Integer.BYTES, length(offset), StandardCharsets.UTF_8);
+    }
+
+    private int length(int offset) {
+        return (strings[offset] & 0xFF) << 24 | (strings[offset + 1] & 0xFF) << 16
+                | (strings[offset + 2] & 0xFF) << 8 | (strings[offset + 3] & 0xFF);
+    }
+
+    private static int keyHash(String key) {
+        return key.hashCode() & HASH_MASK;
+    }
+
+    // Decodes the stored UTF-8 one char at a time against the key, so a lookup allocates nothing
+    private boolean keyEquals(long entry, String key) {
+        int offset = (int) entry;
+        int i = offset + Integer.BYTES;
+        int end = i + length(offset);
+        int k = 0;
+        while (i < end) {
+            int b = strings[i] & 0xFF;
+            int c;
+            if (b < 0x80) {
+                c = b;
+                i++;
+            } else if (b < 0xE0) {
+                c = (b & 0x1F) << 6 | (strings[i + 1] & 0x3F);
+                i += 2;
+            } else if (b < 0xF0) {
+                c = (b & 0x0F) << 12 | (strings[i + 1] & 0x3F) << 6 | (strings[i + 2] & 0x3F);
+                i += 3;
+            } else {
+                int codePoint = (b & 0x07) << 18 | (strings[i + 1] & 0x3F) << 12
+                        | (strings[i + 2] & 0x3F) << 6 | (strings[i + 3] & 0x3F);
+                i += 4;
+                if (k + 1 >= key.length() || key.charAt(k) != Character.highSurrogate(codePoint)
+                        || key.charAt(k + 1) != Character.lowSurrogate(codePoint)) {
+                    return false;
+                }
+                k += 2;
+                continue;
+            }
+            if (k == key.length() || key.charAt(k++) != c) {
+                return false;
+            }
+        }
+        return k == key.length();
+    }
+
+    // A position on the tape; cursors are cheap values and navigating never copies the document
+    public final class Cursor {
+        private final int index;
+
+        private Cursor(int index) {
+            this.index = index;
+        }
+
+        public JSONToken type() {
+            switch (typeOf(entry(index))) {
+                case OBJECT:
+                    return JSONToken.START_OBJECT;
+                case ARRAY:
+                    return JSONToken.START_ARRAY;
+                case STRING:
+                    return JSONToken.STRING;
+                case LONG:
+                case DOUBLE:
+                case BIG_INTEGER:
+                case BIG_DECIMAL:
+                    return JSONToken.NUMBER;
+                case TRUE:
+                    return JSONToken.TRUE;
+                case FALSE:
+                    return JSONToken.FALSE;
+                default:
+                    return JSONToken.NULL;
+            }
+        }
+
+        public boolean isObject() {
+            return typeOf(entry(index)) == OBJECT;
+        }
+
+        public boolean isArray() {
+            return typeOf(entry(index)) == ARRAY;
+        }
+
+        public boolean isNull() {
+            return typeOf(entry(index)) == NULL;
+        }
+
+        // Number of fields or elements
+        public int size() {
+            long entry = requireContainer();
+            int count = (int) ((entry & PAYLOAD_MASK) >>> COUNT_SHIFT);
+            if (count < MAX_COUNT) {
+                return count;
+            }
+            int step = typeOf(entry) == OBJECT ? 2 : 1;
+            count = 0;
+            for (int i = index + 1; i < (int) entry; count++) {
+                for (int j = 0; j < step; j++) {
+                    i = next(i);
+                }
+            }
+            return count;
+        }
+
+        // The value of a field, or null when the object has no such field
+        public Cursor get(String key) {
+            long entry = requireObject();
+            int hash = keyHash(key);
+            for (int i = index + 1; i < (int) entry; i = next(i + 1)) {
+                long name = entry(i);
+                if ((int) (name >>> HASH_SHIFT & HASH_MASK) == hash && keyEquals(name, key)) {
+                    return new Cursor(i + 1);
+                }
+            }
+            return null;
+        }
+
+        public Cursor get(int position) {
+            long entry = requireArray();
+            int i = index + 1;
+            for (int skipped = 0; skipped < position && i < (int) entry; skipped++) {
+                i = next(i);
+            }
+            if (position < 0 || i >= (int) entry) {
+                throw new IndexOutOfBoundsException("Index: " + position);
+            }
+            return new Cursor(i);
+        }
+
+        public List<String> keys() {
+            long entry = requireObject();
+            List<String> keys = new ArrayList<>();
+            for (int i = index + 1; i < (int) entry; i = next(i + 1)) {
+                keys.add(string(entry(i)));
+            }
+            return keys;
+        }
+
+        public Iterable<Cursor> elements() {
+            long entry = requireArray();
+            int end = (int) entry;
+            return () -> new Iterator<Cursor>() {
+                private int next = index + 1;
+
+                @Override
+                public boolean hasNext() {
+                    return next < end;
+                }
+
+                @Override
+                public Cursor next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Cursor element = new Cursor(next);
+                    next = JSONTape.this.next(next);
+                    return element;
+                }
+            };
+        }
+
+        public String stringValue() {
+            long entry = entry(index);
+            if (typeOf(entry) != STRING) {
+                throw new JSONException("Not a string: " + type());
+            }
+            return string(entry);
+        }
+
+        public long longValue() {
+            int type = typeOf(entry(index));
+            if (type == LONG) {
+                return entry(index + 1);
+            } else if (type == DOUBLE) {
+                return (long) Double.longBitsToDouble(entry(index + 1));
+            } else if (type == BIG_INTEGER || type == BIG_DECIMAL) {
+                return numberValue().longValue();
+            }
+            throw new JSONException("Not a number: " + type());
+        }
+
+        public double doubleValue() {
+            int type = typeOf(entry(index));
+            if (type == DOUBLE) {
+                return Double.longBitsToDouble(entry(index + 1));
+            } else if (type == LONG) {
+                return entry(index + 1);
+            } else if (type == BIG_INTEGER || type == BIG_DECIMAL) {
+                return numberValue().doubleValue();
+            }
+            throw new JSONException("Not a number: " + type());
+        }
+
+        // Integer, Long, Double, BigInteger or BigDecimal, as the tree parser would produce
+        public Number numberValue() {
+            long entry = entry(index);
+            switch (typeOf(entry)) {
+                case DOUBLE:
+                    return doubleValue();
+                case BIG_INTEGER:
+                    return new BigInteger(string(entry));
+                case BIG_DECIMAL:
+                    return new BigDecimal(string(entry));
+                default:
+                    long value = longValue();
+                    return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE
+                            ? (Number) (int) value : (Number) value;
+            }
+        }
+
+        public boolean booleanValue() {
+            int type = typeOf(entry(index));
+            if (type != TRUE && type != FALSE) {
+                throw new JSONException("Not a boolean: " + type());
+            }
+            return type == TRUE;
+        }
+
+        // This value as a JSONObject, JSONArray, String, Number, Boolean or null. Only one level is built: nested
+        // objects and arrays stay on the tape until the returned container first reads them
+        public Object toValue() {
+            long entry = entry(index);
+            switch (typeOf(entry)) {
+                case OBJECT:
+                    JSONObject jsonObject = new JSONObject();
+                    for (int i = index + 1; i < (int) entry; i = next(i + 1)) {
+                        jsonObject.put(string(entry(i)), child(i + 1));
+                    }
+                    return jsonObject;
+                case ARRAY:
+                    JSONArray jsonArray = new JSONArray();
+                    for (int i = index + 1; i < (int) entry; i = next(i)) {
+                        jsonArray.add(child(i));
+                    }
+                    return jsonArray;
+                case STRING:
+                    return stringValue();
+                case LONG:
+                case DOUBLE:
+                case BIG_INTEGER:
+                case BIG_DECIMAL:
+                    return numberValue();
+                case TRUE:
+                case FALSE:
+                    return booleanValue();
+                default:
+                    return null;
+            }
+        }
+
+        private Object child(int position) {
+            Cursor child = new Cursor(position);
+            int type = typeOf(entry(position));
+            return type == OBJECT || type == ARRAY ? new TapeValue(child) : child.toValue();
+        }
+
+        // Replays this value as JSONHandler events
+        public void emit(JSONHandler handler) {
+            boolean[] objects = new boolean[16];
+            int depth = 0;
+            boolean keyNext = false;
+            int stop = next(index);
+            for (int i = index; i < stop; i++) {
+                long entry = entry(i);
+                int type = typeOf(entry);
+                if (keyNext && type == STRING) {
+                    handler.key(string(entry));
+                    keyNext = false;
+                    continue;
+                }
+                switch (type) {
+                    case OBJECT:
+                    case ARRAY:
+                        if (depth == objects.length) {
+                            objects = Arrays.copyOf(objects, depth * 2);
+                        }
+                        objects[depth++] = type == OBJECT;
+                        if (type == OBJECT) {
+                            handler.startObject();
+                        } else {
+                            handler.startArray();
+                        }
+                        keyNext = type == OBJECT;
+                        continue;
+                    case END_OBJECT:
+                        handler.endObject();
+                        depth--;
+                        break;
+                    case END_ARRAY:
+                        handler.endArray();
+                        depth--;
+                        break;
+                    case STRING:
+                        handler.value(string(entry));
+                        break;
+                    case LONG:
+                        handler.value(entry(++i));
+                        break;
+                    case DOUBLE:
+                        handler.value(Double.longBitsToDouble(entry(++i)));
+                        break;
+                    case BIG_INTEGER:
+                    case BIG_DECIMAL:
+                        handler.value(new Cursor(i).numberValue());
+                        break;
+                    case TRUE:
+                        handler.value(true);
+                        break;
+                    case FALSE:
+                        handler.value(false);
+                        break;
+                    default:
+                        handler.nullValue();
+                        break;
+                }
+                keyNext = depth > 0 && objects[depth - 1];
+            }
+        }
+
+        @Override
+        public String toString() {
+            Object value = toValue();
+            return value instanceof String ? JSONObject.valueToString(value) : String.valueOf(value);
+        }
+
+        private long requireContainer() {
+            long entry = entry(index);
+            if (typeOf(entry) != OBJECT && typeOf(entry) != ARRAY) {
+                throw new JSONException("Not an object or array: " + type());
+            }
+            return entry;
+        }
+
+        private long requireObject() {
+            long entry = entry(index);
+            if (typeOf(entry) != OBJECT) {
+                throw new JSONException("Not an object: " + type());
+            }
+            return entry;
+        }
+
+        private long requireArray() {
+            long entry = entry(index);
+            if (typeOf(entry) != ARRAY) {
+                throw new JSONException("Not an array: " + type());
+            }
+            return entry;
+        }
+    }
+
+    // A nested object or array handed out by Cursor.toValue(), built one level at a time when first read
+    private static final class TapeValue extends LazyValue {
+        private final Cursor cursor;
+
+        TapeValue(Cursor cursor) {
+            this.cursor = cursor;
+        }
+
+        @Override
+        Object materialize() {
+            return cursor.toValue();
+        }
+    }
+
+    // Writes parser events to the tape; container entries are patched with their end and child count on close.
+    // The arrays are sized from the input length and grow by half, and the result keeps them as they are rather than
+    // copying them into exactly sized arrays, which would briefly hold the document twice
+    private static final class TapeBuilder implements JSONHandler {
+        private long[] tape;
+        private byte[] strings;
+        private int entries;
+        private int stringBytes;
+        private int[] starts = new int[32];
+        private int[] counts = new int[32];
+        private int depth;
+
+        // A typical document needs about one tape entry per four input bytes and half its length in strings
+        TapeBuilder(long inputLength) {
+            tape = new long[(int) Math.min(Math.max(inputLength / 4, 1024), MAX_ARRAY_LENGTH)];
+            strings = new byte[(int) Math.min(Math.max(inputLength / 2, 4096), MAX_ARRAY_LENGTH)];
+        }
+
+        JSONTape result() {
+            return new JSONTape(tape, strings);
+        }
+
+        @Override
+        public void startObject() {
+            startContainer(OBJECT);
+        }
+
+        @Override
+        public void key(CharSequence key) {
+            counts[depth - 1]++;
+            String name = key.toString();
+            add(STRING, (long) keyHash(name) << HASH_SHIFT | addString(name));
+        }
+
+        @Override
+        public void endObject() {
+            endContainer(END_OBJECT);
+        }
+
+        @Override
+        public void startArray() {
+            startContainer(ARRAY);
+        }
+
+        @Override
+        public void endArray() {
+            endContainer(END_ARRAY);
+        }
+
+        @Override
+        public void value(long value) {
+            countValue();
+            add(LONG, 0);
+            addRaw(value);
+        }
+
+        @Override
+        public void value(double value) {
+            countValue();
+            add(DOUBLE, 0);
+            addRaw(Double.doubleToRawLongBits(value));
+        }
+
+        @Override
+        public void value(Number value) {
+            countValue();
+            add(value instanceof BigInteger ? BIG_INTEGER : BIG_DECIMAL, addString(value.toString()));
+        }
+
+        @Override
+        public void value(CharSequence value) {
+            countValue();
+            add(STRING, addString(value.toString()));
+        }
+
+        @Override
+        public void value(boolean value) {
+            countValue();
+            add(value ? TRUE : FALSE, 0);
+        }
+
+        @Override
+        public void nullValue() {
+            countValue();
+            add(NULL, 0);
+        }
+
+        private void startContainer(int type) {
+            countValue();
+            if (depth == starts.length) {
+                starts = Arrays.copyOf(starts, depth * 2);
+                counts = Arrays.copyOf(counts, depth * 2);
+            }
+            starts[depth] = entries;
+            counts[depth++] = 0;
+            add(type, 0);
+        }
+
+        private void endContainer(int type) {
+            int start = starts[--depth];
+            long count = Math.min(counts[depth], MAX_COUNT);
+            tape[start] = ((long) typeOf(tape[start]) << TYPE_SHIFT) | (count << COUNT_SHIFT) | entries;
+            add(type, start);
+        }
+
+        // Object fields are counted by their key, so only array elements count here
+        private void countValue() {
+            if (depth > 0 && typeOf(tape[starts[depth - 1]]) == ARRAY) {
+                counts[depth - 1]++;
+            }
+        }
+
+        private void add(int type, long payload) {
+            addRaw(((long) type << TYPE_SHIFT) | payload);
+        }
+
+        private void addRaw(long value) {
+            if (entries == tape.length) {
+                if (entries == MAX_ARRAY_LENGTH) {
+                    throw new JSONException("Document too large for a tape");
+                }
+                tape = Arrays.copyOf(tape, (int) Math.min((long) entries * 3 / 2, MAX_ARRAY_LENGTH));
+            }
+            tape[entries++] = value;
+        }
+
+        private int addString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            long needed = (long) stringBytes + Integer.BYTES + bytes.length;
+            if (needed > MAX_ARRAY_LENGTH) {
+                throw new JSONException("Document too large for a tape");
+            }
+            if (needed > strings.length) {
+                long capacity = Math.max((long) strings.length * 3 / 2, needed);
+                strings = Arrays.copyOf(strings, (int) Math.min(capacity, MAX_ARRAY_LENGTH));
+            }
+            int offset = stringBytes;
+            strings[offset] = (byte) (bytes.length >>> 24);
+            strings[offset + 1] = (byte) (bytes.length >>> 16);
+            strings[offset + 2] = (byte) (bytes.length >>> 8);
+            strings[offset + 3] = (byte) bytes.length;
+            System.arraycopy(bytes, 0, strings, offset + Integer.BYTES, bytes.length);
+            stringBytes = (int) needed;
+            return offset;
+        }
+    }
+}
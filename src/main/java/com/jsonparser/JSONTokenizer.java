@@ -3,6 +3,9 @@ package com.jsonparser;
 import java.util.ArrayList;
 import java.util.List;
 
+// The original tokenizer, kept for callers that used it directly: it splits the whole input into a list of token
+// texts up front. JSONParser no longer uses it; read tokens one at a time with JSONReader instead
+@Deprecated
 public class JSONTokenizer {
     private final String json;
     private int position;
@@ -0,0 +1,118 @@
+package com.jsonparser;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+class JSONTreeBuilder implements JSONHandler {
+    private final Deque<Object> containers = new ArrayDeque<>();
+    private boolean frozen;
+    private String key;
+    private Object result;
+
+    JSONTreeBuilder() {
+        this(false);
+    }
+
+    // A frozen builder freezes each container as it closes, so the finished tree is read-only
+    JSONTreeBuilder(boolean frozen) {
+        this.frozen = frozen;
+    }
+
+    // Clears the state of the previous document so one builder can serve many parses
+    void reset(boolean frozen) {
+        containers.clear();
+        key = null;
+        result = null;
+        this.frozen = frozen;
+    }
+
+    Object result() {
+        return result;
+    }
+
+    @Override
+    public void startObject() {
+        JSONObject jsonObject = new JSONObject();
+        add(jsonObject);
+        containers.push(jsonObject);
+    }
+
+    @Override
+    public void key(CharSequence key) {
+        this.key = key.toString();
+    }
+
+    @Override
+    public void endObject() {
+        JSONObject jsonObject = (JSONObject) containers.pop();
+        if (frozen) {
+            jsonObject.freeze();
+        }
+    }
+
+    @Override
+    public void startArray() {
+        JSONArray jsonArray = new JSONArray();
+        add(jsonArray);
+        containers.push(jsonArray);
+    }
+
+    @Override
+    public void endArray() {
+        JSONArray jsonArray = (JSONArray) containers.pop();
+        if (frozen) {
+            jsonArray.freeze();
+        }
+    }
+
+    @Override
+    public void value(long value) {
+        if (containers.peek() instanceof JSONArray) {
+            ((JSONArray) containers.peek()).addLong(value);
+        } else if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            add((int) value);
+        } else {
+            add(value);
+        }
+    }
+
+    @Override
+    public void value(double value) {
+        if (containers.peek() instanceof JSONArray) {
+            ((JSONArray) containers.peek()).addDouble(value);
+        } else {
+            add(value);
+        }
+    }
+
+    @Override
+    public void value(Number value) {
+        add(value);
+    }
+
+    @Override
+    public void value(CharSequence value) {
+        add(value instanceof JSONString ? value : value.toString());
+    }
+
+    @Override
+    public void value(boolean value) {
+        add(value);
+    }
+
+    @Override
+    public void nullValue() {
+        add(null);
+    }
+
+    private void add(Object value) {
+        Object parent = containers.peek();
+        if (parent == null) {
+            result = value;
+        } else if (parent instanceof JSONObject) {
+            ((JSONObject) parent).put(key, value);
+        } else {
+            ((JSONArray) parent).add(value);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.jsonparser;
+
+import java.nio.charset.StandardCharsets;
+
+// Bounded symbol table that returns one canonical String per object key; safe to share between threads
+public final class KeyCache {
+    private static final int DEFAULT_CAPACITY = 256;
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final Entry[] table;
+    private final int mask;
+
+    public KeyCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public KeyCache(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.table = new Entry[size];
+        this.mask = size - 1;
+    }
+
+    String lookup(char[] chars, int start, int length, int hash) {
+        if (length > MAX_KEY_LENGTH) {
+            return new String(chars, start, length);
+        }
+        int index = slot(hash);
+        Entry entry = table[index];
+        if (entry != null && entry.hash == hash && entry.matches(chars, start, length)) {
+            return entry.key;
+        }
+        Entry other = table[index ^ 1];
+        if (other != null && other.hash == hash && other.matches(chars, start, length)) {
+            return other.key;
+        }
+        return insert(index, new String(chars, start, length), hash);
+    }
+
+    // Only for ASCII keys without escapes, whose bytes map one-to-one to chars
+    String lookup(byte[] bytes, int start, int length, int hash) {
+        if (length > MAX_KEY_LENGTH) {
+            return new String(bytes, start, length, StandardCharsets.ISO_8859_1);
+        }
+        int index = slot(hash);
+        Entry entry = table[index];
+        if (entry != null && entry.hash == hash && entry.matches(bytes, start, length)) {
+            return entry.key;
+        }
+        Entry other = table[index ^ 1];
+        if (other != null && other.hash == hash && other.matches(bytes, start, length)) {
+            return other.key;
+        }
+        return insert(index, new String(bytes, start, length, StandardCharsets.ISO_8859_1), hash);
+    }
+
+    private int slot(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    // Entries are immutable, so a racy write only ever loses a cache slot, never publishes a broken entry
+    private String insert(int index, String key, int hash) {
+        if (table[index] != null && table[index ^ 1] == null) {
+            index ^= 1;
+        }
+        table[index] = new Entry(key, hash);
+        return key;
+    }
+
+    private static final class Entry {
+        final String key;
+        final int hash;
+
+        Entry(String key, int hash) {
+            this.key = key;
+            this.hash = hash;
+        }
+
+        boolean matches(char[] chars, int start, int length) {
+            if (key.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (key.charAt(i) != chars[start + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean matches(byte[] bytes, int start, int length) {
+            if (key.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (key.charAt(i) != bytes[start + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.jsonparser;
+
+// An object or array that has been validated but not yet built; JSONObject and JSONArray replace it on first access
+abstract class LazyValue {
+    abstract Object materialize();
+
+    static Object resolve(Object value) {
+        return value instanceof LazyValue ? ((LazyValue) value).materialize() : value;
+    }
+
+    // A range of an in-memory document, parsed again when it is first read. The nested containers' ends come from
+    // the index recorded when the range was first skipped, starting at entry from, so only this level is tokenized
+    static final class Span extends LazyValue {
+        private final JSONSource source;
+        private final int start;
+        private final int end;
+        private final KeyCache keyCache;
+        private final int[] index;
+        private final int from;
+
+        Span(JSONSource source, int start, int end, KeyCache keyCache, int[] index, int from) {
+            this.source = source;
+            this.start = start;
+            this.end = end;
+            this.keyCache = keyCache;
+            this.index = index;
+            this.from = from;
+        }
+
+        @Override
+        Object materialize() {
+            JSONParser parser = new JSONParser(source.reader(start, end));
+            parser.setKeyCache(keyCache);
+            return parser.parseLazy(source, index, from);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.jsonparser;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Scans a file through memory-mapped windows, so the bytes are never copied into the heap: only the strings and keys
+// that are actually decoded are. A token that straddles two windows is read again from the start of the next window,
+// which is mapped at that token. Windows are unmapped when they are garbage collected, not on close()
+final class MappedJSONReader extends UTF8JSONReader {
+    private static final long WINDOW_SIZE = 256L << 20;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long windowSize;
+    private long windowStart;
+    private MappedByteBuffer window;
+
+    private int stringStart;
+    private int stringEnd;
+    private byte[] scratch = new byte[64];
+
+    MappedJSONReader(Path path) throws IOException {
+        this(path, WINDOW_SIZE);
+    }
+
+    MappedJSONReader(Path path, long windowSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+    }
+
+    // Maps the next window from tokenStart (or position) onwards
+    @Override
+    protected boolean fill() {
+        if (windowStart + limit >= size) {
+            return false;
+        }
+        int keep = tokenStart >= 0 ? tokenStart : position;
+        if (keep == 0 && window != null) {
+            throw new JSONException("Token longer than " + windowSize + " bytes");
+        }
+        long start = windowStart + keep;
+        long length = Math.min(windowSize, size - start);
+        try {
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        } catch (IOException e) {
+            throw new JSONException("Error reading input", e);
+        }
+        windowStart = start;
+        limit = (int) length;
+        position -= keep;
+        if (tokenStart >= 0) {
+            tokenStart = 0;
+        }
+        return true;
+    }
+
+    @Override
+    public void reset(byte[] json, int offset, int length) {
+        throw new UnsupportedOperationException("A mapped file reader cannot be reset");
+    }
+
+    @Override
+    public void close() {
+        window = null;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new JSONException("Error closing input", e);
+        }
+    }
+
+    @Override
+    protected int nextNonWhitespace() {
+        while (position < limit || fill()) {
+            int c = window.get(position++) & 0xFF;
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    protected char nextChar() {
+        if (position == limit && !fill()) {
+            throw new JSONException("Unexpected end of input");
+        }
+        return (char) (window.get(position++) & 0xFF);
+    }
+
+    @Override
+    protected char nextStringByte() {
+        if (position == limit && !fill()) {
+            throw new JSONException("Unclosed quote");
+        }
+        return (char) (window.get(position++) & 0xFF);
+    }
+
+    @Override
+    protected int peek() {
+        return position < limit || fill() ? window.get(position) & 0xFF : -1;
+    }
+
+    @Override
+    protected String tokenText() {
+        int length = position - tokenStart;
+        return new String(copy(tokenStart, length), 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    protected String readString() {
+        tokenStart = position;
+        boolean escaped = false;
+        boolean ascii = true;
+        while (true) {
+            int end = position;
+            while (end < limit) {
+                byte b = window.get(end);
+                if (b == '"' || b == '\\' || b < 0) {
+                    break;
+                }
+                end++;
+            }
+            position = end;
+            if (end == limit) {
+                if (!fill()) {
+                    throw new JSONException("Unclosed quote");
+                }
+                continue;
+            }
+            int b = window.get(position++);
+            if (b == '"') {
+                break;
+            }
+            if (b == '\\') {
+                escaped = true;
+                skipEscape();
+            } else {
+                ascii = false;
+                skipMultiByteSequence(b & 0xFF);
+            }
+        }
+        int start = tokenStart;
+        tokenStart = -1;
+        return deferString(start, position - 1, escaped, ascii);
+    }
+
+    @Override
+    protected String readKey() {
+        int hash = 0;
+        for (int end = position; end < limit; end++) {
+            byte b = window.get(end);
+            if (b == '"') {
+                int length = end - position;
+                byte[] key = copy(position, length);
+                position = end + 1;
+                return keyCache().lookup(key, 0, length, hash);
+            }
+            if (b == '\\' || b < 0) {
+                break;
+            }
+            hash = 31 * hash + b;
+        }
+        return readString();
+    }
+
+    @Override
+    protected String deferString(int start, int end, boolean escaped, boolean ascii) {
+        stringStart = start;
+        stringEnd = end;
+        return super.deferString(start, end, escaped, ascii);
+    }
+
+    @Override
+    protected String decodeString() {
+        int length = stringEnd - stringStart;
+        return decode(copy(stringStart, length), 0, length);
+    }
+
+    // Views would point into a window that is replaced as the reader moves on
+    @Override
+    protected CharSequence textView() {
+        return null;
+    }
+
+    private byte[] copy(int start, int length) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        window.get(start, scratch, 0, length);
+        return scratch;
+    }
+}
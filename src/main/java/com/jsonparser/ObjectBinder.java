@@ -0,0 +1,432 @@
+package com.jsonparser;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+// Binds tokens straight into the target type for parseToClass: POJO fields are set and record components collected
+// as their values are read, and typed collections, maps and arrays are filled element by element, so no JSONObject
+// or JSONArray exists for anything with a declared type. Only values typed as Object (or as JSONObject, JSONArray,
+// raw Map or List) are built as trees. Members the target does not declare are skipped without being built.
+// Types with a generated TypeCodec are handed to it, and it calls back here for their member values
+final class ObjectBinder implements TypeCodec.ValueReader {
+    private final JSONParser parser;
+    private final JSONReader reader;
+
+    ObjectBinder(JSONParser parser) {
+        this.parser = parser;
+        this.reader = parser.reader();
+    }
+
+    @Override
+    public Object read(JSONToken token, Type type) {
+        return bind(token, type);
+    }
+
+    @Override
+    public int readInt(JSONToken token) {
+        expect(JSONToken.NUMBER, token, int.class);
+        return (int) integral(int.class, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long readLong(JSONToken token) {
+        expect(JSONToken.NUMBER, token, long.class);
+        return integral(long.class, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    @Override
+    public double readDouble(JSONToken token) {
+        expect(JSONToken.NUMBER, token, double.class);
+        return reader.currentDouble();
+    }
+
+    @Override
+    public boolean readBoolean(JSONToken token) {
+        if (token != JSONToken.TRUE && token != JSONToken.FALSE) {
+            throw cannotConvert(token.toString(), boolean.class);
+        }
+        return token == JSONToken.TRUE;
+    }
+
+    @Override
+    public String readString(JSONToken token) {
+        expect(JSONToken.STRING, token, String.class);
+        return reader.currentString();
+    }
+
+    Object bind(JSONToken token, Type type) {
+        Class<?> raw = rawType(type);
+        switch (token) {
+            case START_OBJECT:
+                return bindObject(type, raw);
+            case START_ARRAY:
+                return bindArray(type, raw);
+            case STRING:
+                return bindString(raw);
+            case NUMBER:
+                return bindNumber(raw);
+            case TRUE:
+            case FALSE:
+                if (raw == boolean.class || raw.isAssignableFrom(Boolean.class)) {
+                    return token == JSONToken.TRUE;
+                }
+                throw cannotConvert("boolean", raw);
+            case NULL:
+                return null;
+            default:
+                throw new JSONException("Unexpected token: " + token);
+        }
+    }
+
+    private Object bindObject(Type type, Class<?> raw) {
+        if (Map.class.isAssignableFrom(raw) || raw == Object.class) {
+            Type valueType = typeArgument(type, 1);
+            if (rawType(valueType) == Object.class && raw.isAssignableFrom(JSONObject.class)) {
+                return parser.buildValue(JSONToken.START_OBJECT);
+            }
+            Class<?> keyType = rawType(typeArgument(type, 0));
+            if (!keyType.isAssignableFrom(String.class)) {
+                throw new JSONException("Unsupported map key type: " + keyType);
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> map = raw.isAssignableFrom(LinkedHashMap.class)
+                    ? new LinkedHashMap<>() : (Map<String, Object>) newContainer(raw);
+            while (reader.nextToken() != JSONToken.END_OBJECT) {
+                String key = key();
+                map.put(key, bind(reader.nextToken(), valueType));
+            }
+            return map;
+        }
+
+        TypeCodec<?> codec = TypeCodecs.find(raw);
+        if (codec != null) {
+            return codec.read(reader, this);
+        }
+        if (raw.isPrimitive() || raw.isArray() || raw.isInterface() || raw.isEnum()
+                || raw.getPackageName().startsWith("java.")) {
+            throw cannotConvert("object", raw);
+        }
+        ClassBinding binding = ClassBinding.of(raw);
+        if (binding.isRecord()) {
+            Object[] arguments = binding.newArguments();
+            while (reader.nextToken() != JSONToken.END_OBJECT) {
+                ClassBinding.FieldBinding field = binding.field(key());
+                JSONToken token = reader.nextToken();
+                if (field == null) {
+                    skip(token);
+                } else {
+                    Object value = bind(token, field.genericType);
+                    arguments[field.index] = value != null ? value : field.defaultValue;
+                }
+            }
+            return binding.newRecord(arguments);
+        }
+
+        Object instance = binding.newInstance();
+        while (reader.nextToken() != JSONToken.END_OBJECT) {
+            ClassBinding.FieldBinding field = binding.field(key());
+            JSONToken token = reader.nextToken();
+            if (field == null) {
+                skip(token);
+            } else {
+                Object value = bind(token, field.genericType);
+                if (value != null) {
+                    field.set(instance, value);
+                }
+            }
+        }
+        return instance;
+    }
+
+    private Object bindArray(Type type, Class<?> raw) {
+        if (raw.isArray()) {
+            Class<?> component = raw.getComponentType();
+            if (component == int.class) {
+                return bindIntArray();
+            } else if (component == long.class) {
+                return bindLongArray();
+            } else if (component == double.class) {
+                return bindDoubleArray();
+            } else if (component == boolean.class) {
+                return bindBooleanArray();
+            } else if (component == float.class) {
+                return bindFloatArray();
+            } else if (component == short.class) {
+                return bindShortArray();
+            } else if (component == byte.class) {
+                return bindByteArray();
+            } else if (component == char.class) {
+                return bindCharArray();
+            }
+            // Arrays.copyOf keeps the runtime component type, so the elements are stored without Array.set
+            Type componentType = type instanceof GenericArrayType
+                    ? ((GenericArrayType) type).getGenericComponentType() : component;
+            Object[] values = (Object[]) Array.newInstance(component, 16);
+            int size = 0;
+            JSONToken token;
+            while ((token = reader.nextToken()) != JSONToken.END_ARRAY) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                values[size++] = bind(token, componentType);
+            }
+            return Arrays.copyOf(values, size);
+        }
+
+        if (Collection.class.isAssignableFrom(raw) || raw == Object.class || raw == Iterable.class) {
+            Type elementType = typeArgument(type, 0);
+            if (rawType(elementType) == Object.class && raw.isAssignableFrom(JSONArray.class)) {
+                return parser.buildValue(JSONToken.START_ARRAY);
+            }
+            @SuppressWarnings("unchecked")
+            Collection<Object> collection = raw.isAssignableFrom(ArrayList.class) ? new ArrayList<>()
+                    : raw.isAssignableFrom(LinkedHashSet.class) ? new LinkedHashSet<>()
+                    : (Collection<Object>) newContainer(raw);
+            JSONToken token;
+            while ((token = reader.nextToken()) != JSONToken.END_ARRAY) {
+                collection.add(bind(token, elementType));
+            }
+            return collection;
+        }
+
+        throw new JSONException("Cannot convert JSONArray to " + raw);
+    }
+
+    // Primitive arrays are filled straight from the tokens into a growing array, without boxing any element
+    private int[] bindIntArray() {
+        int[] values = new int[16];
+        int size = 0;
+        JSONToken token;
+        while ((token = reader.nextToken()) != JSONToken.END_ARRAY) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = readInt(token);
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    private long[] bindLongArray() {
+        long[] values = new long[16];
+        int size = 0;
+        JSONToken token;
+        while ((token = reader.nextToken()) != JSONToken.END_ARRAY) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = readLong(token);
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    private double[] bindDoubleArray() {
+        double[] values = new double[16];
+        int size = 0;
+        JSONToken token;
+        while ((token = reader.nextToken()) != JSONToken.END_ARRAY) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = readDouble(token);
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    private boolean[] bindBooleanArray() {
+        boolean[] values = new boolean[16];
+        int size = 0;
+        JSONToken token;
+        while ((token = reader.nextToken()) != JSONToken.END_ARRAY) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = readBoolean(token);
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    private float[] bindFloatArray() {
+        float[] values = new float[16];
+        int size = 0;
+        JSONToken token;
+        while ((token = reader.nextToken()) != JSONToken.END_ARRAY) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            expect(JSONToken.NUMBER, token, float.class);
+            values[size++] = (float) reader.currentDouble();
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    private short[] bindShortArray() {
+        short[] values = new short[16];
+        int size = 0;
+        JSONToken token;
+        while ((token = reader.nextToken()) != JSONToken.END_ARRAY) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            expect(JSONToken.NUMBER, token, short.class);
+            values[size++] = (short) integral(short.class, Short.MIN_VALUE, Short.MAX_VALUE);
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    private byte[] bindByteArray() {
+        byte[] values = new byte[16];
+        int size = 0;
+        JSONToken token;
+        while ((token = reader.nextToken()) != JSONToken.END_ARRAY) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            expect(JSONToken.NUMBER, token, byte.class);
+            values[size++] = (byte) integral(byte.class, Byte.MIN_VALUE, Byte.MAX_VALUE);
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    private char[] bindCharArray() {
+        char[] values = new char[16];
+        int size = 0;
+        JSONToken token;
+        while ((token = reader.nextToken()) != JSONToken.END_ARRAY) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            expect(JSONToken.STRING, token, char.class);
+            String value = reader.currentString();
+            if (value.length() != 1) {
+                throw cannotConvert("string", char.class);
+            }
+            values[size++] = value.charAt(0);
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    private Object bindString(Class<?> raw) {
+        if (raw.isAssignableFrom(String.class)) {
+            return reader.currentString();
+        }
+        if (raw == char.class || raw == Character.class) {
+            String value = reader.currentString();
+            if (value.length() == 1) {
+                return value.charAt(0);
+            }
+        }
+        throw cannotConvert("string", raw);
+    }
+
+    private Object bindNumber(Class<?> raw) {
+        if (raw == int.class || raw == Integer.class) {
+            return (int) integral(raw, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        } else if (raw == long.class || raw == Long.class) {
+            return integral(raw, Long.MIN_VALUE, Long.MAX_VALUE);
+        } else if (raw == double.class || raw == Double.class) {
+            return reader.currentDouble();
+        } else if (raw == float.class || raw == Float.class) {
+            return (float) reader.currentDouble();
+        } else if (raw == short.class || raw == Short.class) {
+            return (short) integral(raw, Short.MIN_VALUE, Short.MAX_VALUE);
+        } else if (raw == byte.class || raw == Byte.class) {
+            return (byte) integral(raw, Byte.MIN_VALUE, Byte.MAX_VALUE);
+        }
+
+        Number value = reader.currentNumber();
+        if (raw == BigDecimal.class) {
+            return value instanceof BigDecimal ? value
+                    : value instanceof BigInteger ? new BigDecimal((BigInteger) value)
+                    : value instanceof Double ? BigDecimal.valueOf(value.doubleValue())
+                    : BigDecimal.valueOf(value.longValue());
+        } else if (raw == BigInteger.class && !(value instanceof Double || value instanceof BigDecimal)) {
+            return value instanceof BigInteger ? value : BigInteger.valueOf(value.longValue());
+        } else if (raw.isInstance(value)) {
+            return value;
+        }
+        throw cannotConvert("number " + value, raw);
+    }
+
+    private long integral(Class<?> raw, long min, long max) {
+        JSONReader.NumberType numberType = reader.currentNumberType();
+        if (numberType == JSONReader.NumberType.INT || numberType == JSONReader.NumberType.LONG) {
+            long value = reader.currentLong();
+            if (value >= min && value <= max) {
+                return value;
+            }
+        }
+        throw cannotConvert("number " + reader.currentNumber(), raw);
+    }
+
+    @Override
+    public String key() {
+        String key = reader.currentString();
+        if (key.isEmpty())
+            throw new JSONException("Missing key");
+        return key;
+    }
+
+    // Skipped members are still tokenized, so the whole input is validated as it is with a tree parse
+    @Override
+    public void skip(JSONToken token) {
+        if (token == JSONToken.START_OBJECT || token == JSONToken.START_ARRAY) {
+            reader.skipChildren();
+        }
+    }
+
+    // Concrete map and collection types such as TreeMap or ArrayDeque, through their public no-arg constructor
+    private static Object newContainer(Class<?> raw) {
+        try {
+            return raw.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new JSONException("Unsupported container type: " + raw, e);
+        }
+    }
+
+    private static void expect(JSONToken expected, JSONToken token, Class<?> raw) {
+        if (token != expected) {
+            throw cannotConvert(token.toString(), raw);
+        }
+    }
+
+    private static JSONException cannotConvert(String what, Class<?> raw) {
+        return new JSONException("Cannot convert " + what + " to " + raw);
+    }
+
+    private static Class<?> rawType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        } else if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        } else if (type instanceof GenericArrayType) {
+            return Array.newInstance(rawType(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        } else if (type instanceof WildcardType) {
+            return rawType(((WildcardType) type).getUpperBounds()[0]);
+        } else if (type instanceof TypeVariable) {
+            return rawType(((TypeVariable<?>) type).getBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < arguments.length) {
+                return arguments[index];
+            }
+        }
+        return Object.class;
+    }
+}
@@ -0,0 +1,149 @@
+package com.jsonparser;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Splits a top-level array into its elements with one sequential scan, then parses the elements with fork-join tasks
+final class ParallelArrayParser {
+    private static final int MIN_TASK_SIZE = 64 * 1024;
+
+    private final JSONSource source;
+    private final KeyCache keyCache = new KeyCache(1024);
+    private int[] starts = new int[1024];
+    private int[] ends = new int[1024];
+    private int count;
+
+    private ParallelArrayParser(JSONSource source) {
+        this.source = source;
+    }
+
+    static JSONArray parse(byte[] json) {
+        return new ParallelArrayParser(JSONSource.of(json)).parse();
+    }
+
+    static JSONArray parse(String json) {
+        return new ParallelArrayParser(JSONSource.of(json)).parse();
+    }
+
+    private JSONArray parse() {
+        scanElements();
+        Object[] elements = new Object[count];
+        ForkJoinPool.commonPool().invoke(new ParseTask(elements, 0, count));
+        JSONArray jsonArray = new JSONArray();
+        jsonArray.addAll(Arrays.asList(elements));
+        return jsonArray;
+    }
+
+    private void scanElements() {
+        int length = source.length();
+        int i = skipWhitespace(0, length);
+        if (i == length || source.at(i) != '[') {
+            throw new JSONException("Root element is not a JSONArray");
+        }
+
+        int elementStart = ++i;
+        int depth = 0;
+        boolean inString = false;
+        for (; i < length; i++) {
+            int c = source.at(i);
+            if (inString) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            switch (c) {
+                case '"':
+                    inString = true;
+                    break;
+                case '{':
+                case '[':
+                    depth++;
+                    break;
+                case '}':
+                case ']':
+                    if (depth > 0) {
+                        depth--;
+                        break;
+                    }
+                    if (c != ']') {
+                        throw new JSONException("Unexpected token: }");
+                    }
+                    if (skipWhitespace(elementStart, i) < i) {
+                        addElement(elementStart, i);
+                    } else if (count > 0) {
+                        throw new JSONException("Trailing comma in array");
+                    }
+                    int end = skipWhitespace(i + 1, length);
+                    if (end < length) {
+                        throw new JSONException("Unexpected token: " + (char) source.at(end));
+                    }
+                    return;
+                case ',':
+                    if (depth == 0) {
+                        if (skipWhitespace(elementStart, i) == i) {
+                            throw new JSONException("Unexpected token: ,");
+                        }
+                        addElement(elementStart, i);
+                        elementStart = i + 1;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        throw new JSONException(inString ? "Unclosed quote" : "Unexpected end of input");
+    }
+
+    private int skipWhitespace(int from, int to) {
+        while (from < to) {
+            int c = source.at(from);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                break;
+            }
+            from++;
+        }
+        return from;
+    }
+
+    private void addElement(int start, int end) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        count++;
+    }
+
+    // Serializable only through RecursiveAction; tasks never leave the pool that runs them
+    @SuppressWarnings("serial")
+    private class ParseTask extends RecursiveAction {
+        private final Object[] elements;
+        private final int from;
+        private final int to;
+
+        ParseTask(Object[] elements, int from, int to) {
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1 && ends[to - 1] - starts[from] > MIN_TASK_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ParseTask(elements, from, middle), new ParseTask(elements, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                JSONParser parser = new JSONParser(source.reader(starts[i], ends[i]));
+                parser.setKeyCache(keyCache);
+                elements[i] = parser.parseValue();
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.jsonparser;
+
+import java.util.function.Function;
+
+// Per-thread parsers behind the static JSONParser helpers: each call resets a parser onto the new input instead of
+// building a reader, key cache and container stacks from scratch. A nested call on the same thread (from a handler
+// callback, say) gets a fresh parser. A parser that has grown a large buffer is dropped rather than kept, and the byte
+// parser lets go of the caller's array once it is done
+final class ParserPool {
+    private static final int MAX_POOLED_INPUT = 1 << 20;
+    private static final byte[] NO_INPUT = new byte[0];
+    private static final ThreadLocal<ParserPool> POOLS = ThreadLocal.withInitial(ParserPool::new);
+
+    private JSONParser charParser;
+    private JSONParser byteParser;
+    private boolean charParserInUse;
+    private boolean byteParserInUse;
+
+    private ParserPool() {
+    }
+
+    static <T> T apply(String json, Function<JSONParser, T> action) {
+        ParserPool pool = POOLS.get();
+        if (pool.charParserInUse) {
+            return action.apply(new JSONParser(json));
+        }
+        pool.charParserInUse = true;
+        try {
+            if (pool.charParser == null) {
+                pool.charParser = new JSONParser(json);
+            } else {
+                pool.charParser.reset(json);
+            }
+            return action.apply(pool.charParser);
+        } finally {
+            pool.charParserInUse = false;
+            if (json.length() > MAX_POOLED_INPUT) {
+                pool.charParser = null;
+            }
+        }
+    }
+
+    static <T> T apply(byte[] json, Function<JSONParser, T> action) {
+        ParserPool pool = POOLS.get();
+        if (pool.byteParserInUse) {
+            return action.apply(new JSONParser(json));
+        }
+        pool.byteParserInUse = true;
+        try {
+            if (pool.byteParser == null) {
+                pool.byteParser = new JSONParser(json);
+            } else {
+                pool.byteParser.reset(json);
+            }
+            return action.apply(pool.byteParser);
+        } finally {
+            pool.byteParserInUse = false;
+            pool.byteParser.reset(NO_INPUT);
+        }
+    }
+}
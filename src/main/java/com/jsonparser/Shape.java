@@ -0,0 +1,129 @@
+package com.jsonparser;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Key layout of a small JSONObject. Objects that receive the same keys in the same order share one Shape,
+// so a million identical records store their keys once and each record keeps only a value array
+final class Shape {
+    static final int MAX_KEYS = 16;
+    // Bounds the transition tree. When it runs out the tree is dropped and grown again from EMPTY, so one document
+    // with thousands of distinct keys neither pins memory nor stops later documents from sharing shapes
+    private static final int MAX_SHARED_SHAPES = 8192;
+    private static final AtomicInteger sharedBudget = new AtomicInteger(MAX_SHARED_SHAPES);
+
+    static final Shape EMPTY = new Shape(new String[0]);
+
+    private final String[] keys;
+    // Open-addressed with linear probing; each slot holds field index + 1, zero marks an empty slot
+    private final byte[] index;
+
+    // Shapes are never mutated after construction; the transitions only ever grow until they are dropped
+    private volatile Shape firstTransition;
+    private volatile Map<String, Shape> transitions;
+
+    private Shape(String[] keys) {
+        this.keys = keys;
+        this.index = new byte[Integer.highestOneBit(Math.max(1, keys.length)) << 2];
+        int mask = index.length - 1;
+        for (int i = 0; i < keys.length; i++) {
+            int slot = spread(keys[i].hashCode()) & mask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = (byte) (i + 1);
+        }
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    String key(int field) {
+        return keys[field];
+    }
+
+    int indexOf(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        int mask = index.length - 1;
+        for (int slot = spread(key.hashCode()) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            String candidate = keys[index[slot] - 1];
+            if (candidate == key || candidate.equals(key)) {
+                return index[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    // The shape with one more key; the caller guarantees the key is absent and size() < MAX_KEYS
+    Shape with(String key) {
+        Shape next = firstTransition;
+        if (next != null && next.keys[keys.length].equals(key)) {
+            return next;
+        }
+        Map<String, Shape> more = transitions;
+        if (more != null && (next = more.get(key)) != null) {
+            return next;
+        }
+        if (sharedBudget.get() <= 0) {
+            dropTransitions();
+        }
+        return addTransition(key);
+    }
+
+    // Rebuilt along the transitions, so objects that lose a key still share a layout with objects that never had it
+    Shape without(int field) {
+        Shape result = EMPTY;
+        for (int i = 0; i < keys.length; i++) {
+            if (i != field) {
+                result = result.with(keys[i]);
+            }
+        }
+        return result;
+    }
+
+    private synchronized Shape addTransition(String key) {
+        Shape next = firstTransition;
+        if (next == null) {
+            next = new Shape(append(key));
+            sharedBudget.decrementAndGet();
+            firstTransition = next;
+            return next;
+        }
+        if (next.keys[keys.length].equals(key)) {
+            return next;
+        }
+        if (transitions == null) {
+            transitions = new ConcurrentHashMap<>();
+        }
+        return transitions.computeIfAbsent(key, k -> {
+            sharedBudget.decrementAndGet();
+            return new Shape(append(k));
+        });
+    }
+
+    // Objects that hold shapes from the old tree keep them; new objects start a fresh tree from EMPTY
+    private static void dropTransitions() {
+        synchronized (EMPTY) {
+            if (sharedBudget.get() <= 0) {
+                EMPTY.firstTransition = null;
+                EMPTY.transitions = null;
+                sharedBudget.set(MAX_SHARED_SHAPES);
+            }
+        }
+    }
+
+    private String[] append(String key) {
+        String[] extended = Arrays.copyOf(keys, keys.length + 1);
+        extended[keys.length] = key;
+        return extended;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,49 @@
+package com.jsonparser;
+
+import java.lang.reflect.Type;
+
+// A reflection-free reader and writer for one type. Implementations are normally generated by JSONCodecProcessor
+// for classes marked @JSONCodec and registered under META-INF/services, where parseToClass and JSONSerializer find
+// them through ServiceLoader; types without a codec are bound through reflection as before
+public interface TypeCodec<T> {
+    Class<T> type();
+
+    // Reads an object whose START_OBJECT token has just been read, up to and including its END_OBJECT
+    T read(JSONReader reader, ValueReader values);
+
+    void write(T value, StringBuilder out, ValueWriter values);
+
+    // Generic member types for values.read, e.g. List<Item> for a field declared that way
+    static Type fieldType(Class<?> owner, String name) {
+        try {
+            return owner.getDeclaredField(name).getGenericType();
+        } catch (NoSuchFieldException e) {
+            throw new JSONException("Missing field: " + name, e);
+        }
+    }
+
+    // Binds member values the way parseToClass does. Each method takes the first token of the value
+    interface ValueReader {
+        // The name of the current member; empty names are rejected as in the rest of the parser
+        String key();
+
+        int readInt(JSONToken token);
+
+        long readLong(JSONToken token);
+
+        double readDouble(JSONToken token);
+
+        boolean readBoolean(JSONToken token);
+
+        String readString(JSONToken token);
+
+        Object read(JSONToken token, Type type);
+
+        void skip(JSONToken token);
+    }
+
+    interface ValueWriter {
+        // Appends any value the way JSONSerializer.serialize would
+        void write(Object value, StringBuilder out);
+    }
+}
@@ -0,0 +1,27 @@
+package com.jsonparser;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+// The TypeCodecs on the class path, loaded once through ServiceLoader
+final class TypeCodecs {
+    private static final Map<Class<?>, TypeCodec<?>> CODECS = load();
+
+    private TypeCodecs() {
+    }
+
+    // Null when the type has no codec
+    @SuppressWarnings("unchecked")
+    static <T> TypeCodec<T> find(Class<T> type) {
+        return (TypeCodec<T>) CODECS.get(type);
+    }
+
+    private static Map<Class<?>, TypeCodec<?>> load() {
+        Map<Class<?>, TypeCodec<?>> codecs = new HashMap<>();
+        for (TypeCodec<?> codec : ServiceLoader.load(TypeCodec.class)) {
+            codecs.put(codec.type(), codec);
+        }
+        return codecs;
+    }
+}
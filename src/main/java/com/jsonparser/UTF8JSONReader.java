@@ -0,0 +1,299 @@
+package com.jsonparser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class UTF8JSONReader extends JSONReader {
+    private static final int BUFFER_SIZE = 8192;
+
+    private InputStream source;
+    private byte[] buffer;
+
+    private int stringStart;
+    private int stringEnd;
+    private boolean stringEscaped;
+    private boolean stringAscii;
+
+    public UTF8JSONReader(byte[] json) {
+        this(json, 0, json.length);
+    }
+
+    public UTF8JSONReader(byte[] json, int offset, int length) {
+        this.source = null;
+        this.buffer = json;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public UTF8JSONReader(InputStream source) {
+        this.source = source;
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    // For readers that scan bytes held outside a byte[]
+    UTF8JSONReader() {
+    }
+
+    public void reset(byte[] json) {
+        reset(json, 0, json.length);
+    }
+
+    // The bytes are read in place, so there is no buffer to keep; the container stack and key cache are reused
+    public void reset(byte[] json, int offset, int length) {
+        source = null;
+        buffer = json;
+        position = offset;
+        limit = offset + length;
+        restart();
+    }
+
+    @Override
+    public void reset(String json) {
+        reset(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void reset(char[] json, int offset, int length) {
+        reset(new String(json, offset, length));
+    }
+
+    @Override
+    public void close() {
+        if (source != null) {
+            try {
+                source.close();
+            } catch (IOException e) {
+                throw new JSONException("Error closing input", e);
+            }
+        }
+    }
+
+    @Override
+    protected boolean fill() {
+        if (source == null) {
+            return false;
+        }
+        int keep = tokenStart >= 0 ? tokenStart : position;
+        if (keep > 0) {
+            System.arraycopy(buffer, keep, buffer, 0, limit - keep);
+            limit -= keep;
+            position -= keep;
+            if (tokenStart >= 0) {
+                tokenStart = 0;
+            }
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        try {
+            int read;
+            do {
+                read = source.read(buffer, limit, buffer.length - limit);
+            } while (read == 0);
+            if (read < 0) {
+                return false;
+            }
+            limit += read;
+            return true;
+        } catch (IOException e) {
+            throw new JSONException("Error reading input", e);
+        }
+    }
+
+    @Override
+    protected int nextNonWhitespace() {
+        while (position < limit || fill()) {
+            int c = buffer[position++] & 0xFF;
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    protected char nextChar() {
+        if (position == limit && !fill()) {
+            throw new JSONException("Unexpected end of input");
+        }
+        return (char) (buffer[position++] & 0xFF);
+    }
+
+    @Override
+    protected int peek() {
+        return position < limit || fill() ? buffer[position] & 0xFF : -1;
+    }
+
+    @Override
+    protected String tokenText() {
+        return new String(buffer, tokenStart, position - tokenStart, StandardCharsets.ISO_8859_1);
+    }
+
+    // Validates escapes and UTF-8 while finding the closing quote; decoding waits for decodeString()
+    @Override
+    protected String readString() {
+        tokenStart = position;
+        boolean escaped = false;
+        boolean ascii = true;
+        while (true) {
+            int end = position;
+            while (end < limit && buffer[end] != '"' && buffer[end] != '\\' && buffer[end] >= 0) {
+                end++;
+            }
+            position = end;
+            if (end == limit) {
+                if (!fill()) {
+                    throw new JSONException("Unclosed quote");
+                }
+                continue;
+            }
+            int b = buffer[position++];
+            if (b == '"') {
+                break;
+            }
+            if (b == '\\') {
+                escaped = true;
+                skipEscape();
+            } else {
+                ascii = false;
+                skipMultiByteSequence(b & 0xFF);
+            }
+        }
+        int start = tokenStart;
+        tokenStart = -1;
+        return deferString(start, position - 1, escaped, ascii);
+    }
+
+    @Override
+    protected String readKey() {
+        int hash = 0;
+        for (int end = position; end < limit; end++) {
+            byte b = buffer[end];
+            if (b == '"') {
+                int start = position;
+                position = end + 1;
+                return keyCache().lookup(buffer, start, end - start, hash);
+            }
+            if (b == '\\' || b < 0) {
+                break;
+            }
+            hash = 31 * hash + b;
+        }
+        return readString();
+    }
+
+    protected String deferString(int start, int end, boolean escaped, boolean ascii) {
+        stringStart = start;
+        stringEnd = end;
+        stringEscaped = escaped;
+        stringAscii = ascii;
+        return null;
+    }
+
+    @Override
+    protected String decodeString() {
+        return decode(buffer, stringStart, stringEnd);
+    }
+
+    // Decodes the bytes of the string last passed to deferString(), which must be the range [start, end)
+    final String decode(byte[] buffer, int start, int end) {
+        if (!stringEscaped) {
+            return new String(buffer, start, end - start, stringAscii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+        }
+
+        builder.setLength(0);
+        int i = start;
+        while (i < end) {
+            int b = buffer[i] & 0xFF;
+            if (b == '\\') {
+                char escaped = (char) buffer[i + 1];
+                if (escaped == 'u') {
+                    builder.append((char) Integer.parseInt(new String(buffer, i + 2, 4, StandardCharsets.ISO_8859_1), 16));
+                    i += 6;
+                } else {
+                    builder.append(unescape(escaped));
+                    i += 2;
+                }
+            } else if (b < 0x80) {
+                builder.append((char) b);
+                i++;
+            } else if (b < 0xE0) {
+                builder.append((char) (((b & 0x1F) << 6) | (buffer[i + 1] & 0x3F)));
+                i += 2;
+            } else if (b < 0xF0) {
+                builder.append((char) (((b & 0x0F) << 12) | ((buffer[i + 1] & 0x3F) << 6) | (buffer[i + 2] & 0x3F)));
+                i += 3;
+            } else {
+                builder.appendCodePoint(((b & 0x07) << 18) | ((buffer[i + 1] & 0x3F) << 12)
+                        | ((buffer[i + 2] & 0x3F) << 6) | (buffer[i + 3] & 0x3F));
+                i += 4;
+            }
+        }
+        return builder.toString();
+    }
+
+    @Override
+    protected CharSequence textView() {
+        if (source != null || stringEscaped) {
+            return null;
+        }
+        return new JSONString(buffer, stringStart, stringEnd, stringAscii);
+    }
+
+    void skipEscape() {
+        char escaped = nextStringByte();
+        if (escaped != 'u') {
+            unescape(escaped);
+            return;
+        }
+        for (int i = 0; i < 4; i++) {
+            if (Character.digit(nextStringByte(), 16) < 0) {
+                throw new JSONException("Invalid unicode escape");
+            }
+        }
+    }
+
+    void skipMultiByteSequence(int lead) {
+        if (lead < 0xC2) {
+            throw invalidUTF8();
+        } else if (lead < 0xE0) {
+            continuation(nextStringByte());
+        } else if (lead < 0xF0) {
+            int second = nextStringByte();
+            if ((lead == 0xE0 && second < 0xA0) || (lead == 0xED && second >= 0xA0)) {
+                throw invalidUTF8();
+            }
+            continuation(second);
+            continuation(nextStringByte());
+        } else if (lead < 0xF5) {
+            int second = nextStringByte();
+            if ((lead == 0xF0 && second < 0x90) || (lead == 0xF4 && second >= 0x90)) {
+                throw invalidUTF8();
+            }
+            continuation(second);
+            continuation(nextStringByte());
+            continuation(nextStringByte());
+        } else {
+            throw invalidUTF8();
+        }
+    }
+
+    protected char nextStringByte() {
+        if (position == limit && !fill()) {
+            throw new JSONException("Unclosed quote");
+        }
+        return (char) (buffer[position++] & 0xFF);
+    }
+
+    private static void continuation(int b) {
+        if ((b & 0xC0) != 0x80) {
+            throw invalidUTF8();
+        }
+    }
+
+    private static JSONException invalidUTF8() {
+        return new JSONException("Invalid UTF-8 sequence in string");
+    }
+}
@@ -0,0 +1,382 @@
+package com.jsonparser.codegen;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+// Generates a TypeCodec named Outer_Type_JSONCodec next to each class or record marked @JSONCodec and lists the
+// codecs in META-INF/services/com.jsonparser.TypeCodec. The generated reader switches on member names and reads
+// int, long, double, boolean and String members inline; other member types go back to the runtime binder.
+// The processor is not registered as a service, so it only runs when named with -processor or, under Maven,
+// in the compiler plugin's annotationProcessors
+@SupportedAnnotationTypes("com.jsonparser.JSONCodec")
+public class JSONCodecProcessor extends AbstractProcessor {
+    private static final String SERVICE_FILE = "META-INF/services/com.jsonparser.TypeCodec";
+
+    private final List<String> codecs = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        if (round.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+        for (TypeElement annotation : annotations) {
+            for (Element element : round.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.RECORD) {
+                    error(element, "@JSONCodec applies to classes and records");
+                    continue;
+                }
+                try {
+                    generate((TypeElement) element);
+                } catch (IllegalStateException e) {
+                    error(element, e.getMessage());
+                } catch (IOException e) {
+                    error(element, "Cannot write codec: " + e.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        if (type.getModifiers().contains(Modifier.PRIVATE)) {
+            throw new IllegalStateException("@JSONCodec type must not be private");
+        }
+        if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)
+                && type.getKind() != ElementKind.RECORD) {
+            throw new IllegalStateException("@JSONCodec nested class must be static");
+        }
+        boolean record = type.getKind() == ElementKind.RECORD;
+        List<Member> members = record ? recordMembers(type) : classMembers(type);
+
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String typeName = type.getQualifiedName().toString();
+        String codecName = (packageName.isEmpty() ? typeName : typeName.substring(packageName.length() + 1))
+                .replace('.', '_') + "_JSONCodec";
+        String qualifiedCodecName = packageName.isEmpty() ? codecName : packageName + "." + codecName;
+
+        CodeWriter code = new CodeWriter();
+        if (!packageName.isEmpty()) {
+            code.line("package " + packageName + ";").line("");
+        }
+        code.line("// Generated by " + JSONCodecProcessor.class.getName() + " from " + typeName)
+                .line("public final class " + codecName + " implements com.jsonparser.TypeCodec<" + typeName + "> {");
+        for (Member member : members) {
+            if (member.needsTypeConstant()) {
+                code.line("    private static final java.lang.reflect.Type " + member.typeConstant()
+                        + " = com.jsonparser.TypeCodec.fieldType(" + typeName + ".class, \"" + member.name + "\");");
+            }
+        }
+        code.line("")
+                .line("    @Override")
+                .line("    public Class<" + typeName + "> type() {")
+                .line("        return " + typeName + ".class;")
+                .line("    }")
+                .line("");
+        writeRead(code, typeName, members, record);
+        code.line("");
+        writeWrite(code, typeName, members);
+        code.line("}");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedCodecName, type).openWriter()) {
+            writer.write(code.toString());
+        }
+        codecs.add(qualifiedCodecName);
+    }
+
+    private void writeRead(CodeWriter code, String typeName, List<Member> members, boolean record) {
+        code.line("    @Override")
+                .line("    @SuppressWarnings(\"unchecked\")")
+                .line("    public " + typeName + " read(com.jsonparser.JSONReader reader, ValueReader values) {");
+        if (record) {
+            for (Member member : members) {
+                code.line("        " + member.type + " " + member.local() + " = " + defaultValue(member.type) + ";");
+            }
+        } else {
+            code.line("        " + typeName + " instance = new " + typeName + "();");
+        }
+        code.line("        while (reader.nextToken() != com.jsonparser.JSONToken.END_OBJECT) {")
+                .line("            String key = values.key();")
+                .line("            com.jsonparser.JSONToken token = reader.nextToken();")
+                .line("            if (token == com.jsonparser.JSONToken.NULL) {")
+                .line("                continue;")
+                .line("            }")
+                .line("            switch (key) {");
+        for (Member member : members) {
+            code.line("                case \"" + member.name + "\":")
+                    .line("                    " + member.assign(readExpression(member), record) + ";")
+                    .line("                    break;");
+        }
+        code.line("                default:")
+                .line("                    values.skip(token);")
+                .line("            }")
+                .line("        }");
+        if (record) {
+            StringBuilder arguments = new StringBuilder();
+            for (Member member : members) {
+                arguments.append(arguments.length() > 0 ? ", " : "").append(member.local());
+            }
+            code.line("        return new " + typeName + "(" + arguments + ");");
+        } else {
+            code.line("        return instance;");
+        }
+        code.line("    }");
+    }
+
+    private void writeWrite(CodeWriter code, String typeName, List<Member> members) {
+        code.line("    @Override")
+                .line("    public void write(" + typeName + " value, StringBuilder out, ValueWriter values) {");
+        if (members.isEmpty()) {
+            code.line("        out.append(\"{}\");");
+        }
+        for (int i = 0; i < members.size(); i++) {
+            Member member = members.get(i);
+            code.line("        out.append(\"" + (i == 0 ? "{" : ",") + "\\\"" + member.name + "\\\":\");");
+            if (appendsDirectly(member.type)) {
+                code.line("        out.append(" + member.getter + ");");
+            } else {
+                code.line("        values.write(" + member.getter + ", out);");
+            }
+        }
+        if (!members.isEmpty()) {
+            code.line("        out.append('}');");
+        }
+        code.line("    }");
+    }
+
+    private String readExpression(Member member) {
+        switch (member.type.toString()) {
+            case "int":
+            case "java.lang.Integer":
+                return "values.readInt(token)";
+            case "long":
+            case "java.lang.Long":
+                return "values.readLong(token)";
+            case "double":
+            case "java.lang.Double":
+                return "values.readDouble(token)";
+            case "boolean":
+            case "java.lang.Boolean":
+                return "values.readBoolean(token)";
+            case "java.lang.String":
+                return "values.readString(token)";
+            default:
+                String typeExpression = member.needsTypeConstant() ? member.typeConstant() : erasure(member.type) + ".class";
+                return "(" + member.type + ") values.read(token, " + typeExpression + ")";
+        }
+    }
+
+    private List<Member> recordMembers(TypeElement type) {
+        List<Member> members = new ArrayList<>();
+        for (RecordComponentElement component : type.getRecordComponents()) {
+            String name = component.getSimpleName().toString();
+            members.add(new Member(name, component.asType(), "value." + component.getAccessor().getSimpleName() + "()",
+                    null, erasure(component.asType())));
+        }
+        return members;
+    }
+
+    private List<Member> classMembers(TypeElement type) {
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        boolean constructible = !type.getModifiers().contains(Modifier.ABSTRACT) && constructors.stream()
+                .anyMatch(c -> c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE));
+        if (!constructible) {
+            throw new IllegalStateException("@JSONCodec class needs a non-private no-arg constructor");
+        }
+        List<ExecutableElement> methods = ElementFilter.methodsIn(type.getEnclosedElements());
+        List<Member> members = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            String name = field.getSimpleName().toString();
+            TypeMirror fieldType = field.asType();
+            boolean direct = !field.getModifiers().contains(Modifier.PRIVATE);
+            String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+
+            String getter;
+            if (direct) {
+                getter = "value." + name;
+            } else if (hasMethod(methods, "get" + capitalized, null)) {
+                getter = "value.get" + capitalized + "()";
+            } else if (fieldType.getKind() == TypeKind.BOOLEAN && hasMethod(methods, "is" + capitalized, null)) {
+                getter = "value.is" + capitalized + "()";
+            } else {
+                throw new IllegalStateException("No accessible field or getter for " + name);
+            }
+
+            String setter;
+            if (direct && !field.getModifiers().contains(Modifier.FINAL)) {
+                setter = "instance." + name + " = %s";
+            } else if (hasMethod(methods, "set" + capitalized, fieldType)) {
+                setter = "instance.set" + capitalized + "(%s)";
+            } else {
+                throw new IllegalStateException("No writable field or setter for " + name);
+            }
+            members.add(new Member(name, fieldType, getter, setter, erasure(fieldType)));
+        }
+        return members;
+    }
+
+    // A non-private method with that name and either no parameters or a single parameter of the given type
+    private boolean hasMethod(List<ExecutableElement> methods, String name, TypeMirror parameter) {
+        for (ExecutableElement method : methods) {
+            if (!method.getSimpleName().contentEquals(name) || method.getModifiers().contains(Modifier.PRIVATE)
+                    || method.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            if (parameter == null ? method.getParameters().isEmpty() : method.getParameters().size() == 1
+                    && processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(), parameter)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private static boolean appendsDirectly(TypeMirror type) {
+        return type.getKind().isPrimitive() && type.getKind() != TypeKind.CHAR;
+    }
+
+    private static String defaultValue(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "false";
+            case CHAR:
+                return "'\\0'";
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return "(" + type + ") 0";
+            default:
+                return "null";
+        }
+    }
+
+    // Codecs listed by an earlier, incremental compilation of the same output directory are kept, since their
+    // types may not be part of this run
+    private void writeServiceFile() {
+        if (codecs.isEmpty()) {
+            return;
+        }
+        Set<String> entries = new LinkedHashSet<>(readServiceFile());
+        entries.addAll(codecs);
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = file.openWriter()) {
+                for (String codec : entries) {
+                    writer.write(codec + "\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write " + SERVICE_FILE + ": " + e);
+        }
+    }
+
+    private List<String> readServiceFile() {
+        List<String> entries = new ArrayList<>();
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (BufferedReader reader = new BufferedReader(file.openReader(true))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int comment = line.indexOf('#');
+                    String entry = (comment >= 0 ? line.substring(0, comment) : line).trim();
+                    if (!entry.isEmpty()) {
+                        entries.add(entry);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // No service file from an earlier compilation
+        }
+        return entries;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static final class Member {
+        final String name;
+        final TypeMirror type;
+        final String getter;
+        // A format with one %s for the value; null for record components, which go to the constructor
+        final String setter;
+        final String erasure;
+
+        Member(String name, TypeMirror type, String getter, String setter, String erasure) {
+            this.name = name;
+            this.type = type;
+            this.getter = getter;
+            this.setter = setter;
+            this.erasure = erasure;
+        }
+
+        // Generic types such as List<Item> are passed to the binder as the field's reflected Type
+        boolean needsTypeConstant() {
+            return !erasure.equals(type.toString());
+        }
+
+        String typeConstant() {
+            return "TYPE_" + name;
+        }
+
+        String local() {
+            return "field_" + name;
+        }
+
+        String assign(String expression, boolean record) {
+            return record ? local() + " = " + expression : String.format(setter, expression);
+        }
+    }
+
+    private static final class CodeWriter {
+        private final StringBuilder code = new StringBuilder();
+
+        CodeWriter line(String line) {
+            code.append(line).append('\n');
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return code.toString();
+        }
+    }
+}
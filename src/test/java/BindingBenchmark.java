@@ -0,0 +1,121 @@
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.function.Supplier;
+
+import com.jsonparser.*;
+
+// Compares convertToClass with hand-written binding loops over the same tree: one through Field and Constructor
+// objects looked up once, one through method handles held in an array the way ClassBinding holds them. The second
+// isolates the accessors, the first is the baseline convertToClass is compared with. Handles that are not constants
+// are not inlined, so expect the three to land within noise of each other.
+// Run with: java -cp target/classes:target/test-classes BindingBenchmark
+public class BindingBenchmark {
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 30;
+    private static final int OBJECTS = 100_000;
+
+    private static final Field[] FIELDS = Dto.class.getDeclaredFields();
+    private static final Constructor<Dto> CONSTRUCTOR;
+    private static final MethodHandle CONSTRUCTOR_HANDLE;
+    private static final MethodHandle[] SETTERS = new MethodHandle[FIELDS.length];
+
+    static {
+        try {
+            CONSTRUCTOR = Dto.class.getDeclaredConstructor();
+            CONSTRUCTOR.setAccessible(true);
+            CONSTRUCTOR_HANDLE = MethodHandles.lookup().unreflectConstructor(CONSTRUCTOR)
+                    .asType(MethodType.methodType(Object.class));
+            for (int i = 0; i < FIELDS.length; i++) {
+                FIELDS[i].setAccessible(true);
+                SETTERS[i] = MethodHandles.lookup().unreflectSetter(FIELDS[i])
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public static void main(String[] args) {
+        JSONArray tree = JSONParser.parseToJSONArray(dtoArray());
+        long fields = measure(() -> bindThroughFields(tree));
+        long handles = measure(() -> bindThroughHandles(tree));
+        long converted = measure(() -> JSONParser.convertToClass(tree, Dto[].class));
+        System.out.printf("%d objects  cached Field %6.1f ms  cached handles %6.1f ms  convertToClass %6.1f ms"
+                + "  (%.2fx)%n",
+                OBJECTS, fields / 1e6, handles / 1e6, converted / 1e6, (double) fields / converted);
+    }
+
+    private static long measure(Supplier<Object> run) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run.get();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            run.get();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static Dto[] bindThroughFields(JSONArray array) {
+        Dto[] result = new Dto[array.size()];
+        try {
+            for (int i = 0; i < result.length; i++) {
+                JSONObject jsonObject = (JSONObject) array.get(i);
+                Dto dto = CONSTRUCTOR.newInstance();
+                for (Field field : FIELDS) {
+                    Object value = jsonObject.get(field.getName());
+                    if (value != null) {
+                        field.set(dto, value);
+                    }
+                }
+                result[i] = dto;
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+        return result;
+    }
+
+    private static Dto[] bindThroughHandles(JSONArray array) {
+        Dto[] result = new Dto[array.size()];
+        try {
+            for (int i = 0; i < result.length; i++) {
+                JSONObject jsonObject = (JSONObject) array.get(i);
+                Dto dto = (Dto) (Object) CONSTRUCTOR_HANDLE.invokeExact();
+                for (int f = 0; f < SETTERS.length; f++) {
+                    Object value = jsonObject.get(FIELDS[f].getName());
+                    if (value != null) {
+                        SETTERS[f].invokeExact((Object) dto, value);
+                    }
+                }
+                result[i] = dto;
+            }
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+        return result;
+    }
+
+    private static String dtoArray() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < OBJECTS; i++) {
+            json.append(i > 0 ? "," : "").append("{\"id\":").append(i).append(",\"name\":\"item").append(i)
+                    .append("\",\"price\":").append(i * 0.25).append(",\"active\":").append(i % 2 == 0)
+                    .append(",\"stock\":").append(i % 1000).append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    public static class Dto {
+        private int id;
+        private String name;
+        private double price;
+        private boolean active;
+        private int stock;
+    }
+}
@@ -1,10 +1,27 @@
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import com.jsonparser.*;
 
@@ -157,12 +174,20 @@ class JSONParserTest {
                 "[1, 2, 3, ]",
                 "[1, 2, 3, ,]",
                 "{\"name\": \"John\", \"grades\": [1, 2, 3,]}",
+                "{} x",
+                "{}}",
+                "{\"a\": 1} {\"b\": 2}",
         };
 
         for (String invalidJSON : invalidJSONs) {
             assertThrows(JSONException.class, () -> JSONParser.parseToJSONObject(invalidJSON),
                     "Failed to throw JSONException for invalid JSON: " + invalidJSON);
         }
+        assertThrows(JSONException.class, () -> JSONParser.parseToJSONObject("{} x".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(JSONException.class, () -> JSONParser.parseToJSONArrayLazy("[] x"));
+        assertThrows(JSONException.class, () -> JSONParser.parseToClass("{} x", Team.class));
+        assertThrows(JSONException.class, () -> JSONTape.parse("[] ]"));
+        assertTrue(JSONParser.parseToJSONObject(" {} \n").isEmpty());
     }
 
     @Test
@@ -215,7 +240,879 @@ class JSONParserTest {
         assertEquals("10001", address.get("zip"));
     }
 
+    @Test
+    void testJSONReaderTokens() {
+        JSONReader reader = new JSONReader("{\"a\": [1, 2.5, \"x\\ty\"], \"b\": {\"c\": null}, \"d\": true}");
+        assertEquals(JSONToken.START_OBJECT, reader.nextToken());
+        assertEquals(JSONToken.FIELD_NAME, reader.nextToken());
+        assertEquals("a", reader.currentString());
+        assertEquals(JSONToken.START_ARRAY, reader.nextToken());
+        assertEquals(JSONToken.NUMBER, reader.nextToken());
+        assertEquals(1, reader.currentNumber());
+        assertEquals(JSONToken.NUMBER, reader.nextToken());
+        assertEquals(2.5, reader.currentNumber());
+        assertEquals(JSONToken.STRING, reader.nextToken());
+        assertEquals("x\ty", reader.currentString());
+        assertEquals(JSONToken.END_ARRAY, reader.nextToken());
+        assertEquals(JSONToken.FIELD_NAME, reader.nextToken());
+        reader.skipValue();
+        assertEquals(JSONToken.FIELD_NAME, reader.nextToken());
+        assertEquals("d", reader.currentString());
+        assertEquals(JSONToken.TRUE, reader.nextToken());
+        assertEquals(JSONToken.END_OBJECT, reader.nextToken());
+        assertEquals(JSONToken.END_DOCUMENT, reader.nextToken());
+    }
+
+    @Test
+    void testParseEscapesAndNull() {
+        JSONObject jsonObject = JSONParser.parseToJSONObject("{\"quote\": \"say \\\"hi\\\"\", \"unicode\": \"\\u0041\", \"empty\": null}");
+        assertEquals("say \"hi\"", jsonObject.get("quote"));
+        assertEquals("A", jsonObject.get("unicode"));
+        assertTrue(jsonObject.containsKey("empty"));
+        assertNull(jsonObject.get("empty"));
+        assertEquals("{\"quote\":\"say \\\"hi\\\"\"}", JSONParser.parseToJSONObject(
+                "{\"quote\": \"say \\\"hi\\\"\"}").toString());
+    }
+
+    @Test
+    void testParseNumbers() {
+        JSONArray numbers = JSONParser.parseToJSONArray("[0, -7, 2147483648, -9223372036854775808, 1.5, -0.25, 3e2, 1.25E-3, 0.1]");
+        assertEquals(0, numbers.get(0));
+        assertEquals(-7, numbers.get(1));
+        assertEquals(2147483648L, numbers.get(2));
+        assertEquals(Long.MIN_VALUE, numbers.get(3));
+        assertEquals(1.5, numbers.get(4));
+        assertEquals(-0.25, numbers.get(5));
+        assertEquals(300.0, numbers.get(6));
+        assertEquals(0.00125, numbers.get(7));
+        assertEquals(0.1, numbers.get(8));
+
+        assertThrows(JSONException.class, () -> JSONParser.parseToJSONArray("[12345678901234567890]"));
+        assertThrows(JSONException.class, () -> JSONParser.parseToJSONArray("[1.]"));
+        assertThrows(JSONException.class, () -> JSONParser.parseToJSONArray("[-]"));
+    }
+
+    @Test
+    void testParseExactNumbers() {
+        JSONParser parser = new JSONParser("[12345678901234567890, 0.12345678901234567890, 1e400, 2.5, 42]");
+        parser.setExactNumbers(true);
+        JSONArray numbers = (JSONArray) parser.parse();
+        assertEquals(new BigInteger("12345678901234567890"), numbers.get(0));
+        assertEquals(new BigDecimal("0.12345678901234567890"), numbers.get(1));
+        assertEquals(new BigDecimal("1e400"), numbers.get(2));
+        assertEquals(2.5, numbers.get(3));
+        assertEquals(42, numbers.get(4));
+    }
+
+    @Test
+    void testParseFromReaderAcrossBufferRefills() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 5000; i++) {
+            if (i > 0) {
+                json.append(", ");
+            }
+            json.append("{\"id\": ").append(i).append(", \"value\": ").append(i).append(".25")
+                    .append(", \"text\": \"line\\n").append(i).append("\"}");
+        }
+        json.append("]");
+
+        Reader reader = new FilterReader(new StringReader(json.toString())) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(len, 7));
+            }
+        };
+        JSONArray jsonArray = JSONParser.parseToJSONArray(reader);
+        assertEquals(5000, jsonArray.size());
+        JSONObject last = (JSONObject) jsonArray.get(4999);
+        assertEquals(4999, last.get("id"));
+        assertEquals(4999.25, last.get("value"));
+        assertEquals("line\n4999", last.get("text"));
+    }
+
+    @Test
+    void testParseFromPathAndInputStream(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("person.json");
+        Files.writeString(file, jsonObjectString, StandardCharsets.UTF_8);
+
+        Person person = JSONParser.parseToClass(file, Person.class);
+        assertEquals("John Doe", person.getName());
+
+        try (InputStream in = Files.newInputStream(file)) {
+            Map<String, Object> map = JSONParser.parseToMap(in);
+            assertEquals("New York", map.get("city"));
+        }
+    }
+
+    @Test
+    void testParseUTF8Bytes() {
+        String json = "{\"city\": \"Москва\", \"emoji\": \"\uD83D\uDE00 ok\", \"escaped\": \"tab\\t\\u00e9 é\", \"n\": -12.5}";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+        JSONObject jsonObject = JSONParser.parseToJSONObject(bytes);
+        assertEquals("Москва", jsonObject.get("city"));
+        assertEquals("\uD83D\uDE00 ok", jsonObject.get("emoji"));
+        assertEquals("tab\t\u00e9 é", jsonObject.get("escaped"));
+        assertEquals(-12.5, jsonObject.get("n"));
+
+        InputStream in = new FilterInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 3));
+            }
+        };
+        assertEquals(jsonObject.toMap(), JSONParser.parseToMap(in));
+    }
+
+    @Test
+    void testParseInvalidUTF8() {
+        byte[][] invalid = {
+                {'[', '"', (byte) 0xC3, '"', ']'},
+                {'[', '"', (byte) 0xC0, (byte) 0xAF, '"', ']'},
+                {'[', '"', (byte) 0xED, (byte) 0xA0, (byte) 0x80, '"', ']'},
+                {'[', '"', (byte) 0xFF, '"', ']'},
+        };
+        for (byte[] bytes : invalid) {
+            assertThrows(JSONException.class, () -> JSONParser.parseToJSONArray(bytes));
+        }
+    }
+
+    @Test
+    void testParseMappedFile(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("records.json");
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("[");
+            for (int i = 0; i < 20000; i++) {
+                writer.write((i > 0 ? "," : "") + "{\"id\":" + i + ",\"name\":\"имя " + i + "\"}");
+            }
+            writer.write("]");
+        }
+
+        JSONArray records = JSONParser.parseToJSONArray(file);
+        assertEquals(20000, records.size());
+        assertEquals("имя 19999", ((JSONObject) records.get(19999)).get("name"));
+
+        try (JSONParser parser = new JSONParser(file)) {
+            assertEquals(20000, ((JSONArray) parser.parse()).size());
+            parser.reset("{\"a\": 1}");
+            assertEquals("{\"a\":1}", parser.parse().toString());
+        }
+
+        Path empty = Files.createFile(tempDir.resolve("empty.json"));
+        assertThrows(JSONException.class, () -> JSONParser.parseToJSONObject(empty));
+    }
+
+    @Test
+    void testParseWithHandler() {
+        long[] sum = new long[1];
+        int[] depth = new int[2];
+        StringBuilder keys = new StringBuilder();
+        JSONParser.parse(jsonObjectString, new JSONHandler() {
+            @Override
+            public void startObject() {
+                depth[1] = Math.max(depth[1], ++depth[0]);
+            }
+
+            @Override
+            public void key(CharSequence key) {
+                keys.append(key).append(' ');
+            }
+
+            @Override
+            public void endObject() {
+                depth[0]--;
+            }
+
+            @Override
+            public void startArray() {
+            }
+
+            @Override
+            public void endArray() {
+            }
+
+            @Override
+            public void value(long value) {
+                sum[0] += value;
+            }
+
+            @Override
+            public void value(double value) {
+                fail("No doubles expected");
+            }
+
+            @Override
+            public void value(CharSequence value) {
+            }
+
+            @Override
+            public void value(boolean value) {
+            }
+
+            @Override
+            public void nullValue() {
+            }
+        });
+        assertEquals(30 + 85 + 90 + 78, sum[0]);
+        assertEquals(2, depth[1]);
+        assertEquals("name age city isStudent grades address street zipcode ", keys.toString());
+    }
+
+    @Test
+    void testJSONLines(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("log.ndjson");
+        int lines = 120_000;
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < lines; i++) {
+                writer.write("{\"seq\": " + i + ", \"level\": \"INFO\", \"message\": \"request handled\"}\n");
+                if (i % 1000 == 0) {
+                    writer.write("\r\n");
+                }
+            }
+        }
+
+        try (Stream<JSONObject> records = JSONLines.stream(file)) {
+            int[] expected = {0};
+            records.forEach(record -> assertEquals(expected[0]++, record.get("seq")));
+            assertEquals(lines, expected[0]);
+        }
+        try (Stream<JSONObject> records = JSONLines.stream(file, false)) {
+            assertEquals((long) lines * (lines - 1) / 2, records.mapToLong(record -> (Integer) record.get("seq")).sum());
+        }
+
+        byte[] broken = "{\"a\": 1}\n{\"a\": }\n".getBytes(StandardCharsets.UTF_8);
+        JSONException e = assertThrows(JSONException.class,
+                () -> JSONLines.stream(new ByteArrayInputStream(broken), true).count());
+        assertTrue(e.getMessage().contains("offset 9"), e.getMessage());
+        for (String line : new String[] {"{\"a\":1} {\"b\":2}\n", "{\"c\":3}}\n"}) {
+            byte[] trailing = line.getBytes(StandardCharsets.UTF_8);
+            assertThrows(JSONException.class, () -> JSONLines.stream(new ByteArrayInputStream(trailing), false).count());
+        }
+        assertEquals(1, JSONLines.stream(new ByteArrayInputStream("{\"a\":1}  \r\n".getBytes(StandardCharsets.UTF_8)), true)
+                .count());
+    }
+
+    @Test
+    void testParseArrayInParallel() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 50_000; i++) {
+            json.append(i > 0 ? ", " : "").append(switch (i % 4) {
+                case 0 -> "{\"id\": " + i + ", \"tricky\": \"],[{\\\"}\\\\\"}";
+                case 1 -> "[" + i + ", [\"nested\"]]";
+                case 2 -> "\"текст " + i + "\"";
+                default -> String.valueOf(i * 0.5);
+            });
+        }
+        json.append("]");
+
+        String expected = JSONParser.parseToJSONArray(json.toString()).toString();
+        assertEquals(expected, JSONParser.parseToJSONArrayParallel(json.toString()).toString());
+        assertEquals(expected, JSONParser.parseToJSONArrayParallel(json.toString().getBytes(StandardCharsets.UTF_8)).toString());
+        assertEquals(50_000, JSONParser.parseToListParallel(json.toString()).size());
+        assertTrue(JSONParser.parseToJSONArrayParallel(" [ ] ").isEmpty());
+
+        String[] invalid = {"[1, 2,]", "[1,, 2]", "[1 2]", "{\"a\": 1}", "[1, {\"a\": ]}", "[\"open", "[1, 2",
+                "[1,2] garbage", "[1] ]", "[] []"};
+        for (String text : invalid) {
+            assertThrows(JSONException.class, () -> JSONParser.parseToJSONArrayParallel(text),
+                    "Failed to throw JSONException for invalid JSON: " + text);
+        }
+    }
+
+    @Test
+    void testObjectKeysAreCanonical() {
+        String json = "[{\"id\": 1, \"name\": \"a\"}, {\"id\": 2, \"name\": \"b\"}, {\"n\\u0061me\": \"c\"}]";
+        for (JSONArray records : List.of(JSONParser.parseToJSONArray(json),
+                JSONParser.parseToJSONArray(json.getBytes(StandardCharsets.UTF_8)))) {
+            String first = keyOf((JSONObject) records.get(0), "name");
+            assertSame(first, keyOf((JSONObject) records.get(1), "name"));
+            assertEquals("c", ((JSONObject) records.get(2)).get("name"));
+        }
+
+        KeyCache shared = new KeyCache();
+        JSONParser first = new JSONParser("{\"timestamp\": 1}");
+        first.setKeyCache(shared);
+        JSONParser second = new JSONParser("{\"timestamp\": 2}".getBytes(StandardCharsets.UTF_8));
+        second.setKeyCache(shared);
+        assertSame(keyOf((JSONObject) first.parse(), "timestamp"), keyOf((JSONObject) second.parse(), "timestamp"));
+    }
+
+    @Test
+    void testParseLazy() {
+        String json = "{\"meta\": {\"count\": 2, \"tags\": [\"a\", \"b\"]}, \"items\": [{\"id\": 1}, {\"id\": 2, \"name\": \"ü\"}], \"ok\": true}";
+        String expected = JSONParser.parseToJSONObject(json).toString();
+
+        JSONObject lazy = JSONParser.parseToJSONObjectLazy(json);
+        assertEquals(3, lazy.size());
+        assertEquals(true, lazy.get("ok"));
+        JSONObject meta = (JSONObject) lazy.get("meta");
+        assertEquals(2, meta.get("count"));
+        assertEquals(List.of("a", "b"), ((JSONArray) meta.get("tags")).toList());
+        assertSame(meta, lazy.get("meta"));
+        assertEquals(expected, lazy.toString());
+        assertEquals(expected, JSONParser.parseToJSONObjectLazy(json.getBytes(StandardCharsets.UTF_8)).toString());
+
+        JSONArray items = (JSONArray) JSONParser.parseToJSONObjectLazy(json).get("items");
+        assertEquals("ü", ((JSONObject) items.get(1)).get("name"));
+        assertEquals(2, JSONParser.parseToJSONArrayLazy("[[1], {\"a\": [2]}]").size());
+
+        String nested = "[{\"a\": [[], {\"b\": [1, {\"c\": \"]\"}]}, [2]], \"d\\\"\": {\"e\": {}}}, [[[3]], 4]]";
+        JSONArray deep = JSONParser.parseToJSONArrayLazy(nested);
+        JSONObject first = (JSONObject) deep.get(0);
+        JSONArray a = (JSONArray) first.get("a");
+        assertEquals(List.of(2), ((JSONArray) a.get(2)).toList());
+        assertEquals("]", ((JSONObject) ((JSONArray) ((JSONObject) a.get(1)).get("b")).get(1)).get("c"));
+        assertEquals(JSONParser.parseToJSONArray(nested).toString(), deep.toString());
+        assertEquals(JSONParser.parseToJSONArray(nested).toString(),
+                JSONParser.parseToJSONArrayLazy(nested.getBytes(StandardCharsets.UTF_8)).toString());
+
+        String[] invalid = {"{\"a\": {\"b\": }}", "{\"a\": [1,]}", "[{\"a\": 1}", "[[\"open]]", "[{\"a\":{\"\":1}}]"};
+        for (String text : invalid) {
+            assertThrows(JSONException.class, () -> JSONParser.parseToJSONArrayLazy(text),
+                    "Failed to throw JSONException for invalid JSON: " + text);
+        }
+    }
+
+    @Test
+    void testNumericArrays() {
+        JSONObject jsonObject = JSONParser.parseToJSONObject(
+                "{\"grades\": [85, 90, 78], \"ids\": [1, 9007199254740993], \"samples\": [0.5, -1.25, 3e2], \"mixed\": [1, 2.5, \"x\"]}");
+
+        JSONArray grades = (JSONArray) jsonObject.get("grades");
+        assertEquals(90, grades.getInt(1));
+        assertEquals(Integer.valueOf(78), grades.get(2));
+        assertArrayEquals(new double[]{85, 90, 78}, grades.toDoubleArray());
+
+        JSONArray ids = (JSONArray) jsonObject.get("ids");
+        assertEquals(Integer.valueOf(1), ids.get(0));
+        assertEquals(9007199254740993L, ids.getLong(1));
+
+        JSONArray samples = (JSONArray) jsonObject.get("samples");
+        assertEquals(-1.25, samples.getDouble(1));
+        assertArrayEquals(new double[]{0.5, -1.25, 300.0}, samples.toDoubleArray());
+        samples.add("end");
+        samples.add(1, 7);
+        assertEquals(List.of(0.5, 7, -1.25, 300.0, "end"), samples.toList());
+        assertThrows(JSONException.class, () -> samples.getDouble(4));
+
+        JSONArray mixed = (JSONArray) jsonObject.get("mixed");
+        assertEquals(List.of(1, 2.5, "x"), mixed.toList());
+        assertEquals("{\"grades\":[85,90,78]}", JSONParser.parseToJSONObject("{\"grades\": [85, 90, 78]}").toString());
+
+        JSONArray built = new JSONArray();
+        built.add(1);
+        built.add(5_000_000_000L);
+        built.add(2L);
+        assertEquals(List.of(1, 5_000_000_000L, 2L), built.toList());
+        built.remove(0);
+        built.set(0, 3);
+        assertEquals(List.of(3, 2L), built.toList());
+    }
+
+    @Test
+    void testSmallObjectsBehaveAsMaps() {
+        JSONArray records = JSONParser.parseToJSONArray("[{\"id\": 1, \"name\": \"a\", \"id\": 2}, {\"id\": 3, \"name\": \"b\"}, {\"name\": \"c\"}]");
+        JSONObject first = (JSONObject) records.get(0);
+        assertEquals(2, first.size());
+        assertEquals(2, first.get("id"));
+        assertEquals("{\"id\":3,\"name\":\"b\"}", records.get(1).toString());
+        assertEquals(Map.of("name", "c"), ((JSONObject) records.get(2)).toMap());
+        assertFalse(first.containsKey("missing"));
+        assertNull(first.get(42));
+
+        first.put("tags", new JSONArray());
+        assertEquals("a", first.remove("name"));
+        assertEquals(List.of("id", "tags"), List.copyOf(first.keySet()));
+        first.entrySet().removeIf(entry -> entry.getKey().equals("id"));
+        assertEquals("{\"tags\":[]}", first.toString());
+        first.entrySet().iterator().next().setValue(true);
+        assertTrue(first.containsValue(true));
+
+        JSONObject wide = new JSONObject();
+        for (int i = 0; i < 40; i++) {
+            wide.put("k" + i, i);
+        }
+        assertEquals(40, wide.size());
+        assertEquals(39, wide.get("k39"));
+        assertTrue(wide.toString().startsWith("{\"k0\":0,\"k1\":1,"));
+        wide.keySet().removeIf(key -> !key.equals("k7"));
+        assertEquals("{\"k7\":7}", wide.toString());
+        wide.clear();
+        assertTrue(wide.isEmpty());
+
+        StringBuilder distinct = new StringBuilder("[");
+        for (int i = 0; i < 9000; i++) {
+            distinct.append(i > 0 ? "," : "").append("{\"k").append(i).append("\": ").append(i).append(", \"v\": 0}");
+        }
+        JSONArray layouts = JSONParser.parseToJSONArray(distinct.append("]").toString());
+        JSONObject last = (JSONObject) layouts.get(8999);
+        assertEquals(8999, last.get("k8999"));
+        last.remove("k8999");
+        assertEquals("{\"v\":0}", last.toString());
+        assertEquals(0, ((JSONObject) layouts.get(0)).get("k0"));
+    }
+
+    @Test
+    void testObjectsKeepInsertionOrder() {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 99; i >= 0; i--) {
+            json.append(i < 99 ? ", " : "").append("\"f").append(i).append("\": ").append(i);
+        }
+        json.append("}");
+        JSONObject jsonObject = JSONParser.parseToJSONObject(json.toString());
+        assertEquals(json.toString().replace(" ", ""), jsonObject.toString());
+        assertEquals("f99", jsonObject.keySet().iterator().next());
+
+        for (int i = 0; i < 100; i += 2) {
+            assertEquals(i, jsonObject.remove("f" + i));
+        }
+        for (int i = 0; i < 200; i++) {
+            jsonObject.put("g" + i, i);
+            jsonObject.remove("g" + i);
+        }
+        jsonObject.put("f0", "again");
+        jsonObject.values().removeIf(value -> value instanceof Integer && (Integer) value < 90);
+        assertEquals("{\"f99\":99,\"f97\":97,\"f95\":95,\"f93\":93,\"f91\":91,\"f0\":\"again\"}", jsonObject.toString());
+        assertEquals(List.of("f99", "f97", "f95", "f93", "f91", "f0"), List.copyOf(jsonObject.toMap().keySet()));
+    }
+
+    @Test
+    void testFrozenDocuments() {
+        JSONParser parser = new JSONParser("{\"name\": \"a\", \"tags\": [\"x\", {\"deep\": [1, 2]}], \"scores\": [1, 2]}");
+        parser.setFrozen(true);
+        JSONObject document = (JSONObject) parser.parse();
+        JSONArray tags = (JSONArray) document.get("tags");
+        JSONObject deep = (JSONObject) tags.get(1);
+        assertTrue(document.isFrozen() && tags.isFrozen() && deep.isFrozen());
+        assertTrue(((JSONArray) deep.get("deep")).isFrozen());
+
+        assertThrows(UnsupportedOperationException.class, () -> document.put("name", "b"));
+        assertThrows(UnsupportedOperationException.class, () -> document.entrySet().iterator().next().setValue(1));
+        assertThrows(UnsupportedOperationException.class, () -> document.keySet().clear());
+        assertThrows(UnsupportedOperationException.class, () -> tags.add("y"));
+        assertThrows(UnsupportedOperationException.class, () -> tags.iterator().remove());
+        assertThrows(UnsupportedOperationException.class, () -> tags.toList().set(0, "y"));
+        assertThrows(UnsupportedOperationException.class, () -> document.toMap().remove("name"));
+        assertSame(tags, document.toMap().get("tags"));
+
+        JSONObject renamed = document.with("name", "b");
+        assertTrue(renamed.isFrozen());
+        assertEquals("a", document.get("name"));
+        assertEquals("b", renamed.get("name"));
+        assertSame(tags, renamed.get("tags"));
+        assertEquals("{\"name\":\"a\",\"tags\":[\"x\",{\"deep\":[1,2]}]}", document.without("scores").toString());
+        assertEquals("[\"x\"]", tags.without(1).toString());
+        assertEquals(List.of(1, 3), ((JSONArray) document.get("scores")).with(1, 3).toList());
+
+        JSONObject mutable = JSONParser.parseToJSONObjectLazy("{\"inner\": {\"list\": [{}]}}");
+        mutable.freeze();
+        assertTrue(((JSONObject) ((JSONArray) ((JSONObject) mutable.get("inner")).get("list")).get(0)).isFrozen());
+        assertFalse(mutable.with("x", 1).without("x").isEmpty());
+    }
+
+    @Test
+    void testStringViews() {
+        String json = "{\"name\": \"John\", \"bio\": \"a\\nb\", \"city\": \"Zürich\", \"tags\": [\"x\", \"y\"]}";
+        for (JSONParser parser : List.of(new JSONParser(json), new JSONParser(json.getBytes(StandardCharsets.UTF_8)))) {
+            parser.setStringViews(true);
+            JSONObject jsonObject = (JSONObject) parser.parse();
+            assertInstanceOf(JSONString.class, jsonObject.get("name"));
+            assertTrue("John".contentEquals((CharSequence) jsonObject.get("name")));
+            assertEquals("a\nb", jsonObject.get("bio"));
+            CharSequence city = (CharSequence) jsonObject.get("city");
+            assertEquals("Zürich", city.toString());
+            assertEquals('ü', city.charAt(1));
+            assertEquals("Zürich".hashCode(), city.hashCode());
+            assertEquals("ohn", ((CharSequence) jsonObject.get("name")).subSequence(1, 4).toString());
+            assertEquals("{\"name\":\"John\",\"bio\":\"a\\nb\",\"city\":\"Zürich\",\"tags\":[\"x\",\"y\"]}", jsonObject.toString());
+        }
+
+        JSONParser streamed = new JSONParser(new StringReader(json));
+        streamed.setStringViews(true);
+        assertEquals("John", ((JSONObject) streamed.parse()).get("name"));
+
+        JSONParser views = new JSONParser("[\"Main St\"]");
+        views.setStringViews(true);
+        Object street = ((JSONArray) views.parse()).get(0);
+        assertEquals("{\"street\":\"Main St\"}", JSONSerializer.serialize(Map.of("street", street)));
+    }
+
+    @Test
+    void testJSONTape() {
+        JSONTape tape = JSONTape.parse(jsonObjectString);
+        JSONTape.Cursor root = tape.root();
+        assertTrue(root.isObject());
+        assertEquals(6, root.size());
+        assertEquals("John Doe", root.get("name").stringValue());
+        assertEquals(30, root.get("age").longValue());
+        assertFalse(root.get("isStudent").booleanValue());
+        assertNull(root.get("missing"));
+        assertEquals(List.of("name", "age", "city", "isStudent", "grades", "address"), root.keys());
+        assertEquals(78, root.get("grades").get(2).numberValue());
+        assertEquals("10001", root.get("address").get("zipcode").stringValue());
+        assertThrows(IndexOutOfBoundsException.class, () -> root.get("grades").get(3));
+        assertThrows(JSONException.class, () -> root.get("name").get(0));
+
+        long sum = 0;
+        for (JSONTape.Cursor grade : root.get("grades").elements()) {
+            sum += grade.longValue();
+        }
+        assertEquals(253, sum);
+
+        assertEquals(JSONParser.parseToJSONObject(jsonObjectString).toString(), root.toValue().toString());
+        JSONObject address = (JSONObject) root.get("address").toValue();
+        assertEquals("123 Main St", address.get("street"));
+
+        String mixed = "[{\"a\": [], \"b\": {}}, 1.5e3, -7, null, true, \"\\u00fcber\", 9007199254740993]";
+        JSONTape.Cursor array = JSONTape.parse(mixed.getBytes(StandardCharsets.UTF_8)).root();
+        assertEquals(7, array.size());
+        assertEquals(JSONParser.parseToJSONArray(mixed).toString(), array.toValue().toString());
+        assertEquals(1500.0, array.get(1).doubleValue());
+        assertTrue(array.get(3).isNull());
+        assertEquals("über", array.get(5).stringValue());
+        assertEquals(9007199254740993L, array.get(6).longValue());
+        assertEquals(JSONToken.START_OBJECT, array.get(0).type());
+        assertEquals(0, array.get(0).get("a").size());
+
+        JSONTape.Cursor keys = JSONTape.parse("{\"ключ\": 1, \"\ud83d\ude00\": 2, \"k\": {\"n\": [3]}}").root();
+        assertEquals(1, keys.get("ключ").longValue());
+        assertEquals(2, keys.get("😀").longValue());
+        assertNull(keys.get("клю"));
+        assertNull(keys.get("ключи"));
+        JSONObject nested = (JSONObject) keys.toValue();
+        assertEquals(3, ((JSONArray) ((JSONObject) nested.get("k")).get("n")).get(0));
+
+        String big = "[12345678901234567890, 0.10000000000000000000000000001]";
+        JSONParser exact = new JSONParser(big);
+        exact.setExactNumbers(true);
+        JSONTape.Cursor numbers = JSONTape.parse(exact).root();
+        assertEquals(new BigInteger("12345678901234567890"), numbers.get(0).numberValue());
+        assertEquals(new BigDecimal("0.10000000000000000000000000001"), numbers.get(1).numberValue());
+        assertEquals(JSONToken.NUMBER, numbers.get(1).type());
+        assertEquals("[12345678901234567890,0.10000000000000000000000000001]", numbers.toValue().toString());
+    }
+
+    @Test
+    void testParserReset() {
+        JSONParser parser = new JSONParser("{\"a\": [1, 2, {\"b\": \"long value here\"}]}");
+        parser.setExactNumbers(true);
+        assertEquals("{\"a\":[1,2,{\"b\":\"long value here\"}]}", parser.parse().toString());
+
+        parser.reset("[\"x\", 12345678901234567890]");
+        assertEquals(List.of("x", new BigInteger("12345678901234567890")), ((JSONArray) parser.parse()).toList());
+
+        assertThrows(JSONException.class, () -> {
+            parser.reset("{\"broken\": [1, 2");
+            parser.parse();
+        });
+        parser.reset("{\"ok\": true}");
+        assertEquals(true, ((JSONObject) parser.parse()).get("ok"));
+
+        parser.reset("{\"ok\": 1}".getBytes(StandardCharsets.UTF_8));
+        assertEquals(1, ((JSONObject) parser.parse()).get("ok"));
+        parser.reset("[\"ü\"]".getBytes(StandardCharsets.UTF_8));
+        assertEquals("[\"ü\"]", parser.parse().toString());
+
+        JSONParser views = new JSONParser("[\"first\"]");
+        views.setStringViews(true);
+        CharSequence first = (CharSequence) ((JSONArray) views.parse()).get(0);
+        views.reset("[\"other\"]");
+        assertEquals("other", ((JSONArray) views.parse()).get(0).toString());
+        assertEquals("first", first.toString());
+
+        List<String> nested = new java.util.ArrayList<>();
+        JSONParser.parse("[\"[1]\", \"[2]\"]", new NestedParseHandler(nested));
+        assertEquals(List.of("[1]", "[2]"), nested);
+    }
+
+    // Re-enters the static helpers from inside a parse, which must not disturb the outer pooled parser
+    private static class NestedParseHandler implements JSONHandler {
+        private final List<String> values;
+
+        NestedParseHandler(List<String> values) {
+            this.values = values;
+        }
+
+        @Override
+        public void value(CharSequence value) {
+            values.add(JSONParser.parseToJSONArray(value.toString()).toString());
+        }
+
+        @Override
+        public void startObject() {
+        }
+
+        @Override
+        public void key(CharSequence key) {
+        }
+
+        @Override
+        public void endObject() {
+        }
+
+        @Override
+        public void startArray() {
+        }
+
+        @Override
+        public void endArray() {
+        }
+
+        @Override
+        public void value(long value) {
+        }
+
+        @Override
+        public void value(double value) {
+        }
+
+        @Override
+        public void value(boolean value) {
+        }
+
+        @Override
+        public void nullValue() {
+        }
+    }
+
+    @Test
+    void testJSONPath() {
+        String json = "{\"meta\": {\"skip\": [\"]}\", {\"x\": \"\\\"[\"}]}, \"payload\": {\"items\": ["
+                + "{\"price\": 10, \"name\": \"a\"}, {\"price\": 2.5, \"tags\": [{\"price\": 1}]}, {\"name\": \"c\"}]}}";
+        assertEquals(List.of(10, 2.5), JSONPath.compile("/payload/items/*/price").evaluate(json));
+        assertEquals(List.of(2.5), JSONPath.compile("/payload/items/1/price").evaluate(json));
+        assertEquals(List.of(10, 2.5), JSONPath.compile("$.payload.items[*].price").evaluate(json));
+        assertEquals(List.of("c"), JSONPath.compile("$['payload']['items'][2].name").evaluate(json));
+        assertEquals(List.of(10, 2.5, 1), JSONPath.compile("$..price").evaluate(json));
+        assertEquals(List.of(10, 2.5, 1),
+                JSONPath.compile("$..price").evaluate(json.getBytes(StandardCharsets.UTF_8)));
+        assertEquals("{\"price\":1}", JSONPath.compile("$..tags[0]").evaluate(json).get(0).toString());
+        assertEquals(List.of(), JSONPath.compile("/payload/missing").evaluate(json));
+        assertEquals(json.replace(" ", "").length(), JSONPath.compile("").evaluate(json).get(0).toString().length());
+
+        assertEquals(2, JSONPath.compile("$..a").evaluate("{\"a\": {\"a\": 1}}").size());
+        assertEquals(List.of("/"), JSONPath.compile("/a~1b").evaluate("{\"a/b\": \"/\"}"));
+
+        assertThrows(JSONException.class, () -> JSONPath.compile("payload"));
+        assertThrows(JSONException.class, () -> JSONPath.compile("$.items[x]"));
+        assertThrows(JSONException.class, () -> JSONPath.compile("/payload").evaluate("{\"payload\": 1} x"));
+    }
+
+    @Test
+    void testFieldProjection() {
+        String json = "{\"id\": 7, \"blob\": {\"x\": [1, \"}\", {\"y\": null}]}, \"user\": {\"name\": \"Ann\", "
+                + "\"address\": {\"city\": \"Oslo\", \"zip\": \"0150\"}, \"tags\": [\"a\"]}, \"list\": [{\"k\": 1}]}";
+        Set<String> fields = Set.of("id", "user.address.city", "user.tags", "list", "missing", "id.nested");
+        String expected = "{\"id\":7,\"user\":{\"address\":{\"city\":\"Oslo\"},\"tags\":[\"a\"]},\"list\":[{\"k\":1}]}";
+        assertEquals(expected, JSONParser.parseToJSONObject(json, fields).toString());
+        assertEquals(expected,
+                JSONParser.parseToJSONObject(json.getBytes(StandardCharsets.UTF_8), fields).toString());
+        assertEquals("{\"user\":{\"name\":\"Ann\",\"address\":{\"city\":\"Oslo\",\"zip\":\"0150\"},\"tags\":[\"a\"]}}",
+                JSONParser.parseToJSONObject(json, Set.of("user.name", "user")).toString());
+        assertEquals("{}", JSONParser.parseToJSONObject(json, Set.of()).toString());
+
+        JSONParser parser = new JSONParser(json);
+        parser.setFrozen(true);
+        assertTrue(parser.parseFields(Set.of("blob")).isFrozen());
+
+        assertThrows(JSONException.class, () -> JSONParser.parseToJSONObject("[1]", Set.of("id")));
+        assertThrows(JSONException.class, () -> JSONParser.parseToJSONObject("{\"id\": [1, 2}", Set.of("id")));
+    }
+
+    @Test
+    void testBindingMetadataIsShared() {
+        String json = "{\"league\": \"major\", \"name\": \"Owls\", \"tags\": [\"a\", \"b\", \"a\"], "
+                + "\"scores\": [[1, 2], [3]], \"members\": [{\"name\": \"Ann\", \"age\": 30}]}";
+        List<Team> teams = Stream.generate(() -> json).limit(64).parallel()
+                .map(j -> JSONParser.parseToClass(j, Team.class)).toList();
+        for (Team team : teams) {
+            assertEquals("Owls", team.name);
+            assertEquals(Set.of("a", "b"), team.tags);
+            assertEquals(List.of(List.of(1, 2), List.of(3)), team.scores);
+            assertEquals("Ann", team.members[0].getName());
+        }
+        assertEquals("none", Team.league);
+
+        Team[] array = JSONParser.parseToClass("[" + json + ", {\"name\": \"Bats\"}]", Team[].class);
+        assertEquals("Bats", array[1].name);
+        assertThrows(JSONException.class, () -> JSONParser.parseToClass("{\"name\": 5}", Team.class));
+    }
+
+    @Test
+    void testConvertToClassAndSerializeThroughAccessors() {
+        JSONObject tree = JSONParser.parseToJSONObject(jsonObjectString);
+        Person person = JSONParser.convertToClass(tree, Person.class);
+        assertEquals("John Doe", person.getName());
+        assertEquals("10001", person.getAddress().getZipcode());
+        assertEquals(tree.toString(), JSONParser.parseToJSONObject(JSONSerializer.serialize(person)).toString());
+
+        Team team = JSONParser.parseToClass("{\"name\": \"Owls\"}", Team.class);
+        assertEquals("{\"name\":\"Owls\",\"tags\":null,\"scores\":null,\"members\":null}",
+                JSONSerializer.serialize(team));
+        assertThrows(JSONException.class, () -> JSONParser.convertToClass(tree, Runnable.class));
+    }
+
+    @Test
+    void testStreamingBinding() {
+        String json = "{\"id\": 9, \"ignored\": {\"deep\": [1, {\"x\": null}]}, \"owner\": {\"name\": \"Ann\", "
+                + "\"age\": 41, \"grades\": [1, 2]}, \"lines\": [{\"sku\": \"A\", \"qty\": 2, \"price\": 1.5}, "
+                + "{\"sku\": \"B\", \"qty\": 1, \"price\": 3}], \"totals\": {\"net\": 6, \"tax\": 0.5}, "
+                + "\"labels\": [\"x\", \"y\", \"x\"], \"extra\": {\"k\": [true]}, \"big\": 12345678901, \"note\": null}";
+        Order order = JSONParser.parseToClass(json, Order.class);
+        assertEquals(9, order.id());
+        assertEquals("Ann", order.owner().getName());
+        assertEquals(List.of(1, 2), order.owner().getGrades());
+        assertEquals(List.of(new Line("A", 2, 1.5), new Line("B", 1, 3.0)), order.lines());
+        assertEquals(Map.of("net", 6.0, "tax", 0.5), order.totals());
+        assertEquals(Set.of("x", "y"), order.labels());
+        assertEquals("{\"k\":[true]}", order.extra().toString());
+        assertEquals(12345678901L, order.big());
+        assertNull(order.note());
+
+        Line[] lines = JSONParser.parseToClass("[{\"sku\": \"C\"}]".getBytes(StandardCharsets.UTF_8), Line[].class);
+        assertEquals(new Line("C", 0, 0.0), lines[0]);
+        assertEquals(new Line("D", 0, 0.0), JSONParser.convertToClass(
+                JSONParser.parseToJSONObject("{\"sku\": \"D\", \"qty\": null}"), Line.class));
+
+        assertThrows(JSONException.class, () -> JSONParser.parseToClass("{\"ignored\": [1,]}", Order.class));
+        assertThrows(JSONException.class, () -> JSONParser.parseToClass("{\"id\": 1.5}", Order.class));
+        assertThrows(JSONException.class, () -> JSONParser.parseToClass("{\"id\": 9999999999}", Order.class));
+        assertThrows(JSONException.class, () -> JSONParser.parseToClass("{\"owner\": [1]}", Order.class));
+        assertThrows(JSONException.class, () -> JSONParser.parseToClass("[1]", int.class));
+    }
+
+    record Line(String sku, int qty, double price) {
+    }
+
+    record Order(int id, Person owner, List<Line> lines, Map<String, Double> totals, Set<String> labels,
+                 Map<String, Object> extra, long big, String note) {
+    }
+
+    @Test
+    void testGeneratedCodecs() {
+        List<Object> codecTypes = ServiceLoader.load(TypeCodec.class).stream()
+                .map(provider -> (Object) provider.get().type()).toList();
+        assertTrue(codecTypes.containsAll(List.of(Shipment.class, Parcel.class)));
+
+        String json = "{\"id\": \"S1\", \"parcels\": [{\"weight\": 2, \"fragile\": true, \"tags\": [\"a\"], "
+                + "\"extra\": 1}, {\"weight\": 3000000000, \"fragile\": false, \"size\": 0.5}], \"priority\": null}";
+        Shipment shipment = JSONParser.parseToClass(json, Shipment.class);
+        assertEquals("S1", shipment.id());
+        assertEquals(0, shipment.priority());
+        assertEquals(2, shipment.parcels().get(0).weight);
+        assertEquals(List.of("a"), shipment.parcels().get(0).getTags());
+        assertEquals(3000000000L, shipment.parcels().get(1).weight);
+        assertEquals(0.5, shipment.parcels().get(1).size);
+
+        String serialized = JSONSerializer.serialize(shipment);
+        assertEquals("{\"id\":\"S1\",\"parcels\":[{\"weight\":2,\"fragile\":true,\"size\":0.0,\"tags\":[\"a\"]},"
+                + "{\"weight\":3000000000,\"fragile\":false,\"size\":0.5,\"tags\":null}],\"priority\":0}", serialized);
+        assertEquals(serialized, JSONSerializer.serialize(JSONParser.parseToClass(serialized, Shipment.class)));
+        assertThrows(JSONException.class, () -> JSONParser.parseToClass("{\"id\": 5}", Shipment.class));
+        assertThrows(JSONException.class, () -> JSONParser.parseToClass("{\"\": 5}", Shipment.class));
+    }
+
+    @JSONCodec
+    record Shipment(String id, List<Parcel> parcels, int priority) {
+    }
+
+    @JSONCodec
+    static class Parcel {
+        long weight;
+        boolean fragile;
+        double size;
+        private List<String> tags;
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+    }
+
+    @Test
+    void testPrimitiveArrayBinding() {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            values.append(i > 0 ? "," : "").append(i);
+        }
+        String json = "{\"ints\": [" + values + "], \"longs\": [1, 12345678901], \"doubles\": [1, 2.5, -3e2], "
+                + "\"flags\": [true, false], \"shorts\": [7], \"floats\": [1.5, 2], \"bytes\": [-1, 127], "
+                + "\"chars\": [\"a\", \"я\"], \"names\": [\"x\", null]}";
+        Samples samples = JSONParser.parseToClass(json, Samples.class);
+        assertEquals(1000, samples.ints.length);
+        assertEquals(999, samples.ints[999]);
+        assertArrayEquals(new long[] {1, 12345678901L}, samples.longs);
+        assertArrayEquals(new double[] {1, 2.5, -300}, samples.doubles);
+        assertArrayEquals(new boolean[] {true, false}, samples.flags);
+        assertArrayEquals(new short[] {7}, samples.shorts);
+        assertArrayEquals(new float[] {1.5f, 2f}, samples.floats);
+        assertArrayEquals(new byte[] {-1, 127}, samples.bytes);
+        assertArrayEquals(new char[] {'a', 'я'}, samples.chars);
+        assertArrayEquals(new String[] {"x", null}, samples.names);
+
+        Samples fromTree = JSONParser.convertToClass(JSONParser.parseToJSONObject(json), Samples.class);
+        assertArrayEquals(samples.ints, fromTree.ints);
+        assertArrayEquals(samples.longs, fromTree.longs);
+        assertArrayEquals(samples.doubles, fromTree.doubles);
+        assertArrayEquals(samples.flags, fromTree.flags);
+        assertArrayEquals(samples.shorts, fromTree.shorts);
+        assertArrayEquals(samples.floats, fromTree.floats);
+        assertArrayEquals(samples.bytes, fromTree.bytes);
+        assertArrayEquals(samples.chars, fromTree.chars);
+        assertArrayEquals(samples.names, fromTree.names);
+        assertArrayEquals(new int[] {1, 2}, JSONParser.parseToJSONArray("[1, 2]").toIntArray());
+        assertArrayEquals(new int[0], JSONParser.parseToClass("[]", int[].class));
+
+        assertThrows(JSONException.class, () -> JSONParser.parseToClass("{\"ints\": [1, null]}", Samples.class));
+        assertThrows(JSONException.class, () -> JSONParser.parseToClass("{\"ints\": [1.5]}", Samples.class));
+        assertThrows(JSONException.class, () -> JSONParser.parseToClass("{\"flags\": [1]}", Samples.class));
+        assertThrows(JSONException.class, () -> JSONParser.parseToClass("{\"shorts\": [null]}", Samples.class));
+        assertThrows(JSONException.class, () -> JSONParser.parseToClass("{\"bytes\": [128]}", Samples.class));
+        assertThrows(JSONException.class, () -> JSONParser.parseToClass("{\"chars\": [\"ab\"]}", Samples.class));
+        assertThrows(JSONException.class,
+                () -> JSONParser.convertToClass(JSONParser.parseToJSONObject("{\"bytes\": [128]}"), Samples.class));
+        assertThrows(JSONException.class,
+                () -> JSONParser.convertToClass(JSONParser.parseToJSONObject("{\"floats\": [null]}"), Samples.class));
+        assertThrows(JSONException.class,
+                () -> JSONParser.convertToClass(JSONParser.parseToJSONObject("{\"ints\": [1.5, 2.7]}"), Samples.class));
+        assertThrows(JSONException.class,
+                () -> JSONParser.convertToClass(JSONParser.parseToJSONObject("{\"ints\": [5000000000]}"), Samples.class));
+        assertThrows(JSONException.class,
+                () -> JSONParser.convertToClass(JSONParser.parseToJSONObject("{\"longs\": [1e30]}"), Samples.class));
+        assertThrows(JSONException.class, () -> JSONParser.parseToJSONArray("[5000000000]").getInt(0));
+    }
+
+    static class Samples {
+        int[] ints;
+        long[] longs;
+        double[] doubles;
+        boolean[] flags;
+        short[] shorts;
+        float[] floats;
+        byte[] bytes;
+        char[] chars;
+        String[] names;
+    }
+
+    private static String keyOf(JSONObject jsonObject, String key) {
+        return jsonObject.keySet().stream().filter(key::equals).findFirst().orElseThrow();
+    }
+
     // Inner classes for testing
+    public static class Team {
+        static String league = "none";
+        private String name;
+        private Set<String> tags;
+        private List<List<Integer>> scores;
+        private Person[] members;
+
+        private Team() {
+        }
+    }
+
     public static class Person {
         private String name;
         private int age;